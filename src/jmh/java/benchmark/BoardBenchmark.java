@@ -0,0 +1,105 @@
+package benchmark;
+
+import model.Board;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.Move;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the Board operations used while playing and searching: listing
+ * the possible moves, copying, hashing, comparing and parsing a board.
+ *
+ * @author Samuel Gamelin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    /**
+     * The default level whose board is used.
+     */
+    @Param({"1", "10", "20"})
+    private int level;
+
+    /**
+     * The string representation of the level.
+     */
+    private String representation;
+
+    /**
+     * The board of the level.
+     */
+    private Board board;
+
+    /**
+     * A copy of the board of the level, sharing its pieces and therefore equal to
+     * it.
+     */
+    private Board copy;
+
+    /**
+     * The board of the level parsed again. Pieces are compared by identity, so it
+     * is not equal to the board of the level despite holding the same position.
+     */
+    private Board reparsed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        representation = Levels.getRepresentation(level);
+        board = Levels.getBoard(level);
+        copy = new Board(board);
+        reparsed = Levels.getBoard(level);
+    }
+
+    @Benchmark
+    public List<Move> getPossibleMoves() {
+        return board.getPossibleMoves();
+    }
+
+    @Benchmark
+    public Board copyConstructor() {
+        return new Board(board);
+    }
+
+    @Benchmark
+    public int hashCodeBoard() {
+        return board.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsBoard() {
+        return board.equals(copy);
+    }
+
+    @Benchmark
+    public boolean equalsReparsedBoard() {
+        return board.equals(reparsed);
+    }
+
+    @Benchmark
+    public Board createBoard() {
+        return Board.createBoard("Benchmark", representation);
+    }
+
+    @Benchmark
+    public String toStringBoard() {
+        return board.toString();
+    }
+}
@@ -0,0 +1,68 @@
+package benchmark;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import model.Board;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class reads the default levels for the benchmarks. The levels are read
+ * straight from the level data on the classpath, since Resources loads images
+ * and sounds that are not available on a headless machine.
+ *
+ * @author Samuel Gamelin
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class Levels {
+
+    /**
+     * The representation of every default level, by level number.
+     */
+    private static final Map<Integer, String> REPRESENTATIONS = new LinkedHashMap<>();
+
+    static {
+        try (Reader reader = new InputStreamReader(Objects.requireNonNull(
+                Levels.class.getClassLoader().getResourceAsStream("levels/LevelData.json")), StandardCharsets.UTF_8)) {
+            JsonObject data = JsonParser.parseReader(reader).getAsJsonObject();
+            for (JsonElement level : data.getAsJsonArray("defaultLevels")) {
+                JsonObject object = level.getAsJsonObject();
+                REPRESENTATIONS.put(object.get("name").getAsInt(), object.get("board").getAsString());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param level The level number
+     * @return The string representation of the default level
+     * @throws IllegalArgumentException If there is no such default level
+     */
+    static String getRepresentation(int level) {
+        String representation = REPRESENTATIONS.get(level);
+        if (representation == null) {
+            throw new IllegalArgumentException("There is no default level " + level);
+        }
+        return representation;
+    }
+
+    /**
+     * @param level The level number
+     * @return A new board for the default level
+     * @throws IllegalArgumentException If there is no such default level
+     */
+    static Board getBoard(int level) {
+        return Board.createBoard(String.valueOf(level), getRepresentation(level));
+    }
+}
@@ -0,0 +1,63 @@
+package benchmark;
+
+import model.Board;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.Move;
+import util.Solver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks Solver.getNextBestMove on every default level. Each invocation
+ * uses a new solver without a solution cache, so every measurement is a full
+ * search from the start of the level.
+ *
+ * @author Samuel Gamelin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+
+    /**
+     * The default level to solve.
+     */
+    @Param({"1", "2", "3", "4", "5", "6", "7", "8", "9", "10",
+            "11", "12", "13", "14", "15", "16", "17", "18", "19", "20"})
+    private int level;
+
+    /**
+     * The search strategy, which can be changed with -p strategy=A_STAR.
+     */
+    @Param({"BREADTH_FIRST"})
+    private Solver.Strategy strategy;
+
+    /**
+     * The board of the level.
+     */
+    private Board board;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = Levels.getBoard(level);
+    }
+
+    @Benchmark
+    public Move getNextBestMove() {
+        return new Solver(strategy, null, Solver.DEFAULT_CAPACITY).getNextBestMove(board);
+    }
+}
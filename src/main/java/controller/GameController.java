@@ -8,8 +8,11 @@ import model.Mushroom;
 import model.Piece;
 import resources.Resources;
 import util.Move;
+import util.SearchLimits;
 import util.Solver;
+import util.Tablebase;
 
+import java.time.Duration;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
@@ -28,6 +31,17 @@ import java.util.List;
  */
 public class GameController {
 
+    /**
+     * The longest a hint may take before the best move known so far is given.
+     */
+    public static final Duration HINT_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * The most positions a hint may explore before the best move known so far is
+     * given.
+     */
+    public static final long HINT_NODE_BUDGET = 1_000_000;
+
     /**
      * A list used to hold information about the most recent click.
      */
@@ -48,7 +62,24 @@ public class GameController {
      * Represents this controller's current level.
      */
     @Getter
-    private int currentLevel;
+    private volatile int currentLevel;
+
+    /**
+     * The solver session used for this controller's hints.
+     */
+    private final Solver solver;
+
+    /**
+     * The limits of the hint currently being generated, if any.
+     */
+    private volatile SearchLimits hintLimits;
+
+    /**
+     * The tablebase last loaded for a default level, together with that level.
+     * Hints are generated off the event dispatch thread, so both are published at
+     * once.
+     */
+    private volatile LevelTablebase levelTablebase;
 
     /**
      * A stack that maintains moves that can be undone.
@@ -77,6 +108,7 @@ public class GameController {
         this.moveList = new ArrayList<>();
         this.undoMoveStack = new ArrayDeque<>();
         this.redoMoveStack = new ArrayDeque<>();
+        this.solver = new Solver();
 
         if (currentLevel > 0) {
             this.isDefaultLevel = true;
@@ -142,7 +174,7 @@ public class GameController {
         if (isDefaultLevel) {
             board = Resources.getDefaultBoardByLevel(currentLevel);
         } else {
-            board = Resources.getAllUserBoards().stream().filter(b -> b.getName().equals(board.getName())).findFirst().orElse(null);
+            board = Resources.getUserBoard(board.getName());
 
             if (board == null) {
                 board = Resources.getDefaultBoardByLevel(1);
@@ -157,12 +189,41 @@ public class GameController {
     }
 
     /**
-     * Returns the next best move based on this controller's current board.
+     * Returns the next best move based on this controller's current board. Default
+     * levels are answered from their tablebase when one is available, falling back
+     * to the solver otherwise. The solver is given HINT_TIMEOUT and
+     * HINT_NODE_BUDGET, after which the best move known so far is returned, and
+     * can be stopped sooner with cancelHint.
      *
-     * @return The next best move
+     * @return The next best move. Should there be no move to suggest, a move object
+     * with an invalid direction is returned.
      */
     public Move getNextBestMove() {
-        return Solver.getNextBestMove(board);
+        if (isDefaultLevel) {
+            LevelTablebase loaded = levelTablebase;
+            if (loaded == null || loaded.level != currentLevel) {
+                loaded = new LevelTablebase(currentLevel, Resources.getTablebaseByLevel(currentLevel));
+                levelTablebase = loaded;
+            }
+            Tablebase tablebase = loaded.tablebase;
+            if (tablebase != null && tablebase.getDistance(board) > 0) {
+                return tablebase.getNextBestMove(board);
+            }
+        }
+        SearchLimits limits = new SearchLimits(HINT_TIMEOUT, HINT_NODE_BUDGET);
+        hintLimits = limits;
+        return solver.solve(board, limits).getMove();
+    }
+
+    /**
+     * Stops the hint currently being generated, if any. The hint then returns the
+     * best move known so far, or an invalid move if there is none.
+     */
+    public void cancelHint() {
+        SearchLimits limits = hintLimits;
+        if (limits != null) {
+            limits.cancel();
+        }
     }
 
     /**
@@ -211,4 +272,19 @@ public class GameController {
     public enum ClickValidity {
         VALID, INVALID, VALID_MOVE_MADE, INVALID_MOVE_MADE
     }
+
+    /**
+     * A default level and its tablebase, which is null if the level has none.
+     */
+    private static final class LevelTablebase {
+
+        private final int level;
+
+        private final Tablebase tablebase;
+
+        LevelTablebase(int level, Tablebase tablebase) {
+            this.level = level;
+            this.tablebase = tablebase;
+        }
+    }
 }
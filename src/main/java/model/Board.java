@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.SplittableRandom;
 
 /**
  * This class represents a board which keeps track of tiles and pieces within
@@ -31,6 +32,19 @@ public class Board {
      */
     static final String EMPTY = "X";
 
+    /**
+     * The number of distinct kinds of piece a tile can hold: mushrooms, three
+     * rabbit colours, and sixteen fox halves (direction, head or tail, and id).
+     */
+    private static final int PIECE_KINDS = 20;
+
+    /**
+     * A random 64-bit key for every kind of piece on every tile, used to maintain
+     * the Zobrist hash of a board. The keys are seeded so that hashes are the same
+     * from one run to the next.
+     */
+    private static final long[][] ZOBRIST_KEYS = computeZobristKeys();
+
     /**
      * A 2D array of tiles used to manage all tiles on the board.
      */
@@ -42,6 +56,25 @@ public class Board {
      */
     private final List<BoardListener> boardListeners;
 
+    /**
+     * The Zobrist hash of this board: the exclusive or of the keys of every piece
+     * on every tile, updated whenever a piece is placed or removed.
+     */
+    @Getter
+    private long zobristHash;
+
+    /**
+     * The tiles changed since listeners were last notified, bit
+     * {@code SIZE * x + y} being set for the tile at (x, y).
+     */
+    private int changedTiles;
+
+    /**
+     * The number of batches of changes in progress. Listeners are only notified
+     * once the outermost batch ends.
+     */
+    private int batchDepth;
+
     /**
      * The Board's name.
      */
@@ -75,6 +108,7 @@ public class Board {
                 this.tiles[i][j] = new Tile(board.tiles[i][j]);
             }
         }
+        this.zobristHash = board.zobristHash;
         this.boardListeners = new ArrayList<>();
     }
 
@@ -84,37 +118,83 @@ public class Board {
      *
      * @param name           The name of the Board
      * @param representation The String representation of the Board that is being
-     *                       created. Must be of length 25.
-     * @return The newly constructed Board based on the passed String.
+     *                       created. Must hold 25 tiles.
+     * @return The newly constructed Board based on the passed String, or null if
+     * the String is malformed.
      */
     public static Board createBoard(String name, String representation) {
-        String[] currBoard = representation.split("\\s+");
-        if (currBoard.length != 25) {
+        try {
+            return parseBoard(name, representation);
+        } catch (IllegalArgumentException e) {
             return null;
         }
-        Board board = new Board(name);
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                if (!currBoard[5 * i + j].equals(EMPTY)) {
-                    if (currBoard[5 * i + j].length() == 2) {
-                        board.tiles[i][j].placePiece(new Mushroom());
-                    } else if (currBoard[5 * i + j].length() == 3) {
-                        board.tiles[i][j].placePiece(Rabbit.createRabbit(currBoard[5 * i + j]));
-                    } else if (currBoard[5 * i +
-                                         j].substring(1, 2).equals(Fox.FoxType.HEAD.toString().substring(0, 1))) {
-                        Fox f = Fox.createFox(currBoard[5 * i + j]);
-                        board.tiles[i][j].placePiece(f);
-                        switch (f.getDirection()) {
-                            case DOWN -> board.tiles[i][j - 1].placePiece(f.getOtherHalf());
-                            case LEFT -> board.tiles[i + 1][j].placePiece(f.getOtherHalf());
-                            case RIGHT -> board.tiles[i - 1][j].placePiece(f.getOtherHalf());
-                            default -> board.tiles[i][j + 1].placePiece(f.getOtherHalf());
-                        }
-                    }
-                }
+    }
+
+    /**
+     * Create a board object and initializes the pieces specified by the passed
+     * representation, reporting what is wrong with it if it is malformed.
+     *
+     * @param name           The name of the Board
+     * @param representation The representation of the Board that is being created,
+     *                       in the format of toString
+     * @return The newly constructed Board based on the passed representation
+     * @throws IllegalArgumentException If the representation is malformed, stating
+     *                                  the tile and character at fault
+     */
+    public static Board parseBoard(String name, CharSequence representation) {
+        return BoardFormat.parse(name, representation);
+    }
+
+    /**
+     * @return A table of random keys for every kind of piece on every tile
+     */
+    private static long[][] computeZobristKeys() {
+        SplittableRandom random = new SplittableRandom(SIZE * SIZE * PIECE_KINDS);
+        long[][] keys = new long[SIZE * SIZE][PIECE_KINDS];
+        for (long[] tileKeys : keys) {
+            for (int i = 0; i < PIECE_KINDS; i++) {
+                tileKeys[i] = random.nextLong();
             }
         }
-        return board;
+        return keys;
+    }
+
+    /**
+     * Determines the Zobrist key of a piece on a tile.
+     *
+     * @param piece The piece, or null for none
+     * @param x     The x-coordinate of the tile
+     * @param y     The y-coordinate of the tile
+     * @return The key of the piece on the tile, or 0 if there is no piece
+     */
+    private static long zobristKey(Piece piece, int x, int y) {
+        int kind;
+        if (piece instanceof Rabbit) {
+            kind = 1 + ((Rabbit) piece).getColour().ordinal();
+        } else if (piece instanceof Fox) {
+            Fox fox = (Fox) piece;
+            kind = 4 + (fox.getDirection().ordinal() * 2 + fox.getFoxType().ordinal()) * 2 + (fox.getID() ? 1 : 0);
+        } else if (piece != null) {
+            kind = 0;
+        } else {
+            return 0;
+        }
+        return ZOBRIST_KEYS[SIZE * x + y][kind];
+    }
+
+    /**
+     * Places a piece on a tile, replacing any piece already there and updating the
+     * Zobrist hash. Listeners are not notified.
+     *
+     * @param piece The piece to place
+     * @param x     The x-coordinate of the tile
+     * @param y     The y-coordinate of the tile
+     */
+    void placePiece(Piece piece, int x, int y) {
+        if (piece != null) {
+            zobristHash ^= zobristKey(tiles[x][y].getPiece(), x, y) ^ zobristKey(piece, x, y);
+            tiles[x][y].placePiece(piece);
+        }
     }
 
     /**
@@ -150,11 +230,35 @@ public class Board {
     public boolean move(Move move) {
         if (move == null) return false;
         Piece piece = tiles[move.xStart][move.yStart].getPiece();
-        if (piece instanceof MovablePiece && ((MovablePiece) piece).move(move, this)) {
+        if (!(piece instanceof MovablePiece)) {
+            return false;
+        }
+        // A piece moves by being removed and set again, which listeners only hear
+        // about once the whole move is done
+        batchDepth++;
+        try {
+            return ((MovablePiece) piece).move(move, this);
+        } finally {
+            batchDepth--;
+            notifyListeners();
+        }
+    }
+
+    /**
+     * Applies several changes to this board as one, notifying listeners once all
+     * of them are done, with every tile they changed. Batches may be nested, in
+     * which case listeners are notified at the end of the outermost one.
+     *
+     * @param changes The changes to apply
+     */
+    public void batch(Runnable changes) {
+        batchDepth++;
+        try {
+            changes.run();
+        } finally {
+            batchDepth--;
             notifyListeners();
-            return true;
         }
-        return false;
     }
 
     /**
@@ -226,7 +330,8 @@ public class Board {
      */
     public boolean setPiece(Piece piece, int x, int y) {
         if (piece != null && validatePosition(x, y)) {
-            tiles[x][y].placePiece(piece);
+            placePiece(piece, x, y);
+            changedTiles |= 1 << SIZE * x + y;
             notifyListeners();
             return true;
         }
@@ -243,8 +348,11 @@ public class Board {
      */
     public Piece removePiece(int x, int y) {
         if (validatePosition(x, y) && tiles[x][y].isOccupied()) {
+            zobristHash ^= zobristKey(tiles[x][y].getPiece(), x, y);
+            Piece piece = tiles[x][y].removePiece();
+            changedTiles |= 1 << SIZE * x + y;
             notifyListeners();
-            return tiles[x][y].removePiece();
+            return piece;
         }
         return null;
     }
@@ -261,10 +369,16 @@ public class Board {
     }
 
     /**
-     * Notifies all listeners that the board has changed.
+     * Notifies all listeners of the tiles changed since they were last notified,
+     * unless a batch of changes is in progress or nothing has changed.
      */
     private void notifyListeners() {
-        boardListeners.forEach(BoardListener::handleBoardChange);
+        if (batchDepth > 0 || changedTiles == 0) {
+            return;
+        }
+        BoardChange change = new BoardChange(changedTiles);
+        changedTiles = 0;
+        boardListeners.forEach(boardListener -> boardListener.handleBoardChange(change));
     }
 
     /**
@@ -295,13 +409,12 @@ public class Board {
     }
 
     /**
-     * @return The hash code for this Board, as an integer.
+     * @return The hash code for this Board, as an integer, folded from its Zobrist
+     * hash.
      */
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        return prime * result + Arrays.deepHashCode(tiles);
+        return Long.hashCode(zobristHash);
     }
 
     /**
@@ -321,7 +434,8 @@ public class Board {
         if (!(obj instanceof Board)) {
             return false;
         }
-        return Arrays.deepEquals(tiles, ((Board) obj).tiles);
+        Board board = (Board) obj;
+        return zobristHash == board.zobristHash && Arrays.deepEquals(tiles, board.tiles);
     }
 
     /**
@@ -331,12 +445,6 @@ public class Board {
      */
     @Override
     public String toString() {
-        StringBuilder str = new StringBuilder();
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                str.append(tiles[i][j].toString()).append(" ");
-            }
-        }
-        return str.toString().trim();
+        return BoardFormat.write(this);
     }
 }
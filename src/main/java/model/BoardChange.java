@@ -0,0 +1,61 @@
+package model;
+
+/**
+ * This class describes a change to a board: the tiles whose piece was placed,
+ * replaced or removed since listeners were last notified. A move or a batch of
+ * changes is described by a single BoardChange, however many tiles it touched.
+ *
+ * @author Samuel Gamelin
+ */
+public final class BoardChange {
+
+    /**
+     * A change to every tile, for listeners that need to redraw the whole board.
+     */
+    public static final BoardChange ALL = new BoardChange((1 << Board.SIZE * Board.SIZE) - 1);
+
+    /**
+     * The changed tiles, bit {@code Board.SIZE * x + y} being set for the tile at
+     * (x, y).
+     */
+    private final int changedTiles;
+
+    /**
+     * Constructs a change.
+     *
+     * @param changedTiles The changed tiles, one bit per tile
+     */
+    BoardChange(int changedTiles) {
+        this.changedTiles = changedTiles;
+    }
+
+    /**
+     * @param x The x-coordinate of a tile
+     * @param y The y-coordinate of a tile
+     * @return True if the piece on the tile changed, false otherwise
+     */
+    public boolean isChanged(int x, int y) {
+        return (changedTiles >>> Board.SIZE * x + y & 1) != 0;
+    }
+
+    /**
+     * @return The number of tiles that changed
+     */
+    public int getChangedTileCount() {
+        return Integer.bitCount(changedTiles);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder("BoardChange[");
+        for (int x = 0; x < Board.SIZE; x++) {
+            for (int y = 0; y < Board.SIZE; y++) {
+                if (isChanged(x, y)) {
+                    str.append(str.charAt(str.length() - 1) == '[' ? "" : ", ").append('(').append(x).append(", ")
+                       .append(y).append(')');
+                }
+            }
+        }
+        return str.append(']').toString();
+    }
+}
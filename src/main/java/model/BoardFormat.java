@@ -0,0 +1,236 @@
+package model;
+
+/**
+ * This class reads and writes the String representation of a board, as stored
+ * in the level files: the 25 tiles in order of their x and then y coordinates,
+ * separated by whitespace. A tile is X when empty, MU for a mushroom, RB
+ * followed by the colour (B, W or G) for a rabbit, or F followed by H or T for
+ * the head or tail, the direction (L, R, U or D) and the id (0 or 1) for a fox.
+ * <p>
+ * Both directions work a character at a time, without splitting the
+ * representation into intermediate strings.
+ *
+ * @author Samuel Gamelin
+ */
+final class BoardFormat {
+
+    /**
+     * The number of tiles in a representation.
+     */
+    private static final int TILES = Board.SIZE * Board.SIZE;
+
+    /**
+     * The longest representation of a tile, a fox.
+     */
+    private static final int MAX_TILE_LENGTH = 4;
+
+    private static final char[] COLOURS = {'B', 'W', 'G'};
+
+    private static final char[] DIRECTIONS = {'L', 'R', 'U', 'D'};
+
+    private static final char[] FOX_TYPES = {'H', 'T'};
+
+    private static final char[] IDS = {'0', '1'};
+
+    private static final Rabbit.RabbitColour[] RABBIT_COLOURS = Rabbit.RabbitColour.values();
+
+    private static final Fox.Direction[] FOX_DIRECTIONS = Fox.Direction.values();
+
+    private BoardFormat() {
+    }
+
+    /**
+     * Parses the representation of a board.
+     *
+     * @param name           The name of the board
+     * @param representation The representation of the board
+     * @return The new board
+     * @throws IllegalArgumentException If the representation is malformed, stating
+     *                                  the tile and character at fault
+     */
+    static Board parse(String name, CharSequence representation) {
+        Board board = new Board(name);
+        // The fox half found on each tile, so that every half can be matched with
+        // the other once all tiles have been read
+        Fox[] halves = new Fox[TILES];
+        int length = representation.length();
+        int index = skipWhitespace(representation, 0);
+        for (int tile = 0; tile < TILES; tile++) {
+            if (index == length) {
+                throw new IllegalArgumentException("Expected " + TILES + " tiles but found " + tile);
+            }
+            int x = tile / Board.SIZE;
+            int y = tile % Board.SIZE;
+            int start = index;
+            switch (representation.charAt(index++)) {
+                case 'X' -> {
+                }
+                case 'M' -> {
+                    expect(representation, index++, 'U', tile);
+                    board.placePiece(new Mushroom(), x, y);
+                }
+                case 'R' -> {
+                    expect(representation, index++, 'B', tile);
+                    int colour = indexOf(COLOURS, representation, index++, tile, "a rabbit colour");
+                    board.placePiece(new Rabbit(RABBIT_COLOURS[colour]), x, y);
+                }
+                case 'F' -> {
+                    int foxType = indexOf(FOX_TYPES, representation, index++, tile, "a fox half (H or T)");
+                    int direction = indexOf(DIRECTIONS, representation, index++, tile, "a fox direction");
+                    boolean id = indexOf(IDS, representation, index++, tile, "a fox id") == 1;
+                    Fox head = new Fox(FOX_DIRECTIONS[direction], id);
+                    halves[tile] = foxType == 0 ? head : head.getOtherHalf();
+                }
+                default -> throw error(representation, start, tile, "a piece (X, MU, RB or F)");
+            }
+            if (index < length && !isWhitespace(representation.charAt(index))) {
+                throw error(representation, index, tile, "whitespace");
+            }
+            index = skipWhitespace(representation, index);
+        }
+        if (index != length) {
+            throw new IllegalArgumentException("Expected " + TILES + " tiles but found more at index " + index);
+        }
+
+        for (int tile = 0; tile < TILES; tile++) {
+            Fox half = halves[tile];
+            if (half == null || half.getFoxType() != Fox.FoxType.HEAD) {
+                continue;
+            }
+            int x = tile / Board.SIZE;
+            int y = tile % Board.SIZE;
+            // The tail lies behind the head, opposite the direction it faces
+            int tailX = x + (half.getDirection() == Fox.Direction.LEFT ? 1 :
+                    half.getDirection() == Fox.Direction.RIGHT ? -1 : 0);
+            int tailY = y + (half.getDirection() == Fox.Direction.DOWN ? -1 :
+                    half.getDirection() == Fox.Direction.UP ? 1 : 0);
+            Fox tail = tailX < 0 || tailX >= Board.SIZE || tailY < 0 || tailY >= Board.SIZE ? null :
+                    halves[Board.SIZE * tailX + tailY];
+            if (tail == null || tail.getFoxType() != Fox.FoxType.TAIL ||
+                tail.getDirection() != half.getDirection() || tail.getID() != half.getID()) {
+                throw new IllegalArgumentException("Tile " + tile + " holds a fox head without its tail at (" +
+                                                   tailX + ", " + tailY + ")");
+            }
+            halves[Board.SIZE * tailX + tailY] = null;
+            board.placePiece(half, x, y);
+            board.placePiece(half.getOtherHalf(), tailX, tailY);
+        }
+        for (int tile = 0; tile < TILES; tile++) {
+            if (halves[tile] != null && halves[tile].getFoxType() == Fox.FoxType.TAIL) {
+                throw new IllegalArgumentException("Tile " + tile + " holds a fox tail without its head");
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Writes the representation of a board, which parse reads back.
+     *
+     * @param board The board
+     * @return The representation of the board
+     */
+    static String write(Board board) {
+        char[] out = new char[TILES * (MAX_TILE_LENGTH + 1)];
+        int length = 0;
+        for (int x = 0; x < Board.SIZE; x++) {
+            for (int y = 0; y < Board.SIZE; y++) {
+                if (length > 0) {
+                    out[length++] = ' ';
+                }
+                Piece piece = board.getPiece(x, y);
+                if (piece instanceof Rabbit) {
+                    out[length++] = 'R';
+                    out[length++] = 'B';
+                    out[length++] = COLOURS[((Rabbit) piece).getColour().ordinal()];
+                } else if (piece instanceof Fox) {
+                    Fox fox = (Fox) piece;
+                    out[length++] = 'F';
+                    out[length++] = FOX_TYPES[fox.getFoxType().ordinal()];
+                    out[length++] = DIRECTIONS[fox.getDirection().ordinal()];
+                    out[length++] = fox.getID() ? '1' : '0';
+                } else if (piece instanceof Mushroom) {
+                    out[length++] = 'M';
+                    out[length++] = 'U';
+                } else {
+                    out[length++] = 'X';
+                }
+            }
+        }
+        return new String(out, 0, length);
+    }
+
+    /**
+     * Checks that a character of a representation is the one expected.
+     *
+     * @param representation The representation
+     * @param index          The index of the character
+     * @param expected       The character expected
+     * @param tile           The tile being read
+     * @throws IllegalArgumentException If the character is not the one expected
+     */
+    private static void expect(CharSequence representation, int index, char expected, int tile) {
+        if (index >= representation.length() || representation.charAt(index) != expected) {
+            throw error(representation, index, tile, "'" + expected + "'");
+        }
+    }
+
+    /**
+     * Finds a character of a representation among the characters allowed.
+     *
+     * @param allowed        The characters allowed
+     * @param representation The representation
+     * @param index          The index of the character
+     * @param tile           The tile being read
+     * @param description    What the character should be, for the error message
+     * @return The index of the character among those allowed
+     * @throws IllegalArgumentException If the character is not allowed
+     */
+    private static int indexOf(char[] allowed, CharSequence representation, int index, int tile,
+                               String description) {
+        if (index < representation.length()) {
+            char c = representation.charAt(index);
+            for (int i = 0; i < allowed.length; i++) {
+                if (allowed[i] == c) {
+                    return i;
+                }
+            }
+        }
+        throw error(representation, index, tile, description);
+    }
+
+    /**
+     * @param representation The representation
+     * @param index          The index of the character at fault
+     * @param tile           The tile being read
+     * @param expected       What was expected instead
+     * @return An exception describing the character at fault
+     */
+    private static IllegalArgumentException error(CharSequence representation, int index, int tile,
+                                                  String expected) {
+        String found = index < representation.length() ? "'" + representation.charAt(index) + "'" : "the end";
+        return new IllegalArgumentException("Tile " + tile + " at index " + index + ": expected " + expected +
+                                            " but found " + found);
+    }
+
+    /**
+     * @param representation The representation
+     * @param index          The index to start from
+     * @return The index of the first character from the index on which is not
+     * whitespace
+     */
+    private static int skipWhitespace(CharSequence representation, int index) {
+        while (index < representation.length() && isWhitespace(representation.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * @param c A character
+     * @return True if the character separates tiles, as \s does in a regular
+     * expression
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
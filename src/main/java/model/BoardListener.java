@@ -9,7 +9,10 @@ package model;
 public interface BoardListener {
 
     /**
-     * Called when the Board changes. Updates the necessary views accordingly.
+     * Called when the Board changes, once per move or batch of changes. Updates the
+     * necessary views accordingly.
+     *
+     * @param change The tiles that changed
      */
-    void handleBoardChange();
+    void handleBoardChange(BoardChange change);
 }
@@ -77,13 +77,13 @@ public class Fox extends Piece implements MovablePiece {
     static Fox createFox(String str) {
         if (str == null || str.length() != 4) return null;
 
-        Direction dir = switch (str.substring(2, 3)) {
-            case "L" -> Direction.LEFT;
-            case "R" -> Direction.RIGHT;
-            case "U" -> Direction.UP;
+        Direction dir = switch (str.charAt(2)) {
+            case 'L' -> Direction.LEFT;
+            case 'R' -> Direction.RIGHT;
+            case 'U' -> Direction.UP;
             default -> Direction.DOWN;
         };
-        return new Fox(dir, str.startsWith("1", 3));
+        return new Fox(dir, str.charAt(3) == '1');
     }
 
     /**
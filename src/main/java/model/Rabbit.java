@@ -42,9 +42,9 @@ public class Rabbit extends Piece implements MovablePiece {
     static Rabbit createRabbit(String str) {
         if (str == null || str.length() != 3) return null;
 
-        RabbitColour col = switch (str.substring(2, 3)) {
-            case "G" -> RabbitColour.GRAY;
-            case "B" -> RabbitColour.BROWN;
+        RabbitColour col = switch (str.charAt(2)) {
+            case 'G' -> RabbitColour.GRAY;
+            case 'B' -> RabbitColour.BROWN;
             default -> RabbitColour.WHITE;
         };
         return new Rabbit(col);
@@ -0,0 +1,180 @@
+package resources;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import lombok.extern.log4j.Log4j;
+import model.Board;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class represents the catalog of default levels, parsed once from the
+ * LevelData.json file. Each level is kept as a template board which is never
+ * handed out; callers are given copies of it, which are much cheaper to make
+ * than parsing the level again.
+ * <p>
+ * The default catalog is loaded on a background thread the first time it is
+ * asked for, or ahead of time with preload, and every later request shares it.
+ *
+ * @author Samuel Gamelin
+ */
+@Log4j
+public final class LevelCatalog {
+
+    /**
+     * The path of the LevelData.json file, relative to the root of the classpath.
+     */
+    private static final String LEVEL_DATA_PATH = "levels/LevelData.json";
+
+    /**
+     * The default catalog, null until it has been asked for.
+     */
+    private static CompletableFuture<LevelCatalog> defaultCatalog;
+
+    /**
+     * The template of every level, in the order of the file.
+     */
+    private final List<Board> templates;
+
+    /**
+     * The template of every level, by level number.
+     */
+    private final Map<Integer, Board> templatesByNumber;
+
+    /**
+     * The template of every level, by name.
+     */
+    private final Map<String, Board> templatesByName;
+
+    /**
+     * Constructs a catalog of the default levels held by a level file. Levels that
+     * cannot be read are skipped.
+     *
+     * @param levelData The contents of the level file, or null for no levels
+     */
+    LevelCatalog(JsonObject levelData) {
+        List<Board> boards = new ArrayList<>();
+        Map<Integer, Board> byNumber = new HashMap<>();
+        Map<String, Board> byName = new HashMap<>();
+        if (levelData != null && levelData.has("defaultLevels")) {
+            for (JsonElement element : levelData.getAsJsonArray("defaultLevels")) {
+                String name = element.getAsJsonObject().get("name").getAsString();
+                Board board = Board.createBoard(name, element.getAsJsonObject().get("board").getAsString());
+                if (board == null) {
+                    log.error("Skipping default level " + name + ", which cannot be read");
+                    continue;
+                }
+                boards.add(board);
+                byName.putIfAbsent(name, board);
+                try {
+                    byNumber.putIfAbsent(Integer.parseInt(name), board);
+                } catch (NumberFormatException e) {
+                    // The level can only be found by name
+                }
+            }
+        }
+        this.templates = Collections.unmodifiableList(boards);
+        this.templatesByNumber = byNumber;
+        this.templatesByName = byName;
+    }
+
+    /**
+     * Starts loading the default catalog on a background thread, if that has not
+     * been done yet.
+     */
+    public static synchronized void preload() {
+        if (defaultCatalog == null) {
+            defaultCatalog = CompletableFuture.supplyAsync(LevelCatalog::load, runnable -> {
+                Thread thread = new Thread(runnable, "Level catalog loader");
+                thread.setDaemon(true);
+                thread.start();
+            });
+        }
+    }
+
+    /**
+     * Returns the default catalog, waiting for it to be loaded if need be.
+     *
+     * @return The catalog of the levels in the LevelData.json file, which is empty
+     * if the file cannot be read
+     */
+    public static LevelCatalog getDefault() {
+        CompletableFuture<LevelCatalog> catalog;
+        synchronized (LevelCatalog.class) {
+            preload();
+            catalog = defaultCatalog;
+        }
+        return catalog.join();
+    }
+
+    /**
+     * Reads the default catalog from the LevelData.json file.
+     *
+     * @return The default catalog, which is empty if the file cannot be read
+     */
+    private static LevelCatalog load() {
+        InputStream inputStream = LevelCatalog.class.getClassLoader().getResourceAsStream(LEVEL_DATA_PATH);
+        if (inputStream == null) {
+            log.error("Could not find the level file at " + LEVEL_DATA_PATH);
+            return new LevelCatalog(null);
+        }
+        try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+            return new LevelCatalog(JsonParser.parseReader(reader).getAsJsonObject());
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not load the level file at " + LEVEL_DATA_PATH, e);
+            return new LevelCatalog(null);
+        }
+    }
+
+    /**
+     * @return The number of levels in this catalog
+     */
+    public int size() {
+        return templates.size();
+    }
+
+    /**
+     * Looks up a level by number.
+     *
+     * @param level The number of the level
+     * @return A new copy of the level's board, or null if there is no such level
+     */
+    public Board getBoard(int level) {
+        Board template = templatesByNumber.get(level);
+        return template == null ? null : new Board(template);
+    }
+
+    /**
+     * Looks up a level by name.
+     *
+     * @param name The name of the level
+     * @return A new copy of the level's board, or null if there is no such level
+     */
+    public Board getBoard(String name) {
+        Board template = templatesByName.get(name);
+        return template == null ? null : new Board(template);
+    }
+
+    /**
+     * @return A list holding a new copy of every level's board, in the order of the
+     * file
+     */
+    public List<Board> getAllBoards() {
+        List<Board> boards = new ArrayList<>(templates.size());
+        for (Board template : templates) {
+            boards.add(new Board(template));
+        }
+        return boards;
+    }
+}
@@ -6,6 +6,8 @@ import lombok.NoArgsConstructor;
 import lombok.extern.log4j.Log4j;
 import model.Board;
 import ui.GUIUtilities;
+import util.Difficulty;
+import util.Tablebase;
 
 import javax.sound.sampled.*;
 import javax.swing.*;
@@ -13,9 +15,10 @@ import java.awt.*;
 import java.io.*;
 import java.net.URL;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class provides a simple way to access audio and graphical resources
@@ -124,21 +127,10 @@ public final class Resources {
     public static final ImageIcon SIDE_PANEL = loadIcon("images/sidepanel.png", 2, 5);
 
     /**
-     * A String constant representing the key value for user levels in the
-     * LevelData.json file.
+     * A constant representing the relative path of the directory holding the
+     * tablebase of each default level.
      */
-    private static final String USER_LEVELS = "userLevels";
-
-    /**
-     * A String constant representing the key value for default levels in the
-     * LevelData.json file.
-     */
-    private static final String DEFAULT_LEVELS = "defaultLevels";
-
-    /**
-     * A constant representing the relative path of the LevelData.json file.
-     */
-    private static final String LEVEL_DATA_PATH = "levels/LevelData.json";
+    private static final String TABLEBASE_PATH = "levels/tablebases/";
 
     /**
      * The total number of levels available.
@@ -152,6 +144,12 @@ public final class Resources {
             System.getProperty("user.home") + File.separator + ".Rabbits and Foxes!" + File.separator +
             "CustomLevelData.json";
 
+    /**
+     * The store of the user-defined levels, backed by the CustomLevelData.json
+     * file.
+     */
+    private static final UserLevelStore USER_LEVEL_STORE = new UserLevelStore(Paths.get(CUSTOM_LEVEL_DATA_PATH));
+
     /**
      * Returns a scaled version of the icon based on the primary display's size. A
      * scale value of 1 represents 1/5 of the width/height of the viewing area.
@@ -205,16 +203,11 @@ public final class Resources {
     /**
      * Provides the number of default levels available in the LevelData.json file.
      *
-     * @return The total number of levels in the game. Returns -1 if no valid
+     * @return The total number of levels in the game. Returns 0 if no valid
      * LevelData.json file is found.
      */
     private static int getNumberOfLevels() {
-        try {
-            return Objects.requireNonNull(loadJsonObjectFromPath(LEVEL_DATA_PATH, false)).get(DEFAULT_LEVELS).getAsJsonArray().size();
-        } catch (Exception e) {
-            log.error("Unable to obtain total number of levels from LevelData.json file", e);
-            return -1;
-        }
+        return LevelCatalog.getDefault().size();
     }
 
     /**
@@ -264,131 +257,113 @@ public final class Resources {
     }
 
     /**
-     * Load and return a new default Board based on the supplied level. The levels
-     * are loaded from a JSON file.
+     * Returns a new default Board based on the supplied level, copied from the
+     * level catalog (see LevelCatalog) rather than parsed again.
      *
      * @param level The level to load.
      * @return The Board associated with the passed-in level. Null if the level does
      * not exist or the LevelData.json file is not found.
      */
     public static Board getDefaultBoardByLevel(int level) {
-        try {
-            for (JsonElement element :
-                    Objects.requireNonNull(loadJsonObjectFromPath(LEVEL_DATA_PATH, false)).get(DEFAULT_LEVELS).getAsJsonArray()) {
-                if (element.getAsJsonObject().get("name").getAsInt() == level) {
-                    return Board.createBoard(String.valueOf(level),
-                            element.getAsJsonObject().get("board").getAsString());
-                }
-            }
-        } catch (Exception e) {
+        Board board = LevelCatalog.getDefault().getBoard(level);
+        if (board == null) {
             log.error("Unable to obtain level from LevelData.json file for level " + level);
         }
+        return board;
+    }
+
+    /**
+     * Loads the tablebase shipped for the specified default level. Tablebases are
+     * generated from the LevelData.json file by running Tablebase.main.
+     *
+     * @param level The level whose tablebase should be loaded
+     * @return The tablebase for the level. Null if no tablebase is available for
+     * that level or it could not be read.
+     */
+    public static Tablebase getTablebaseByLevel(int level) {
+        InputStream inputStream =
+                Thread.currentThread().getContextClassLoader().getResourceAsStream(TABLEBASE_PATH + level + ".tb");
+        if (inputStream == null) {
+            return null;
+        }
+        try (inputStream) {
+            return Tablebase.read(inputStream);
+        } catch (IOException e) {
+            log.error("Unable to read the tablebase for level " + level, e);
+        }
         return null;
     }
 
     /**
-     * Returns a list of all default boards as specified by the LevelData.json file.
+     * Returns a list of all default boards as specified by the LevelData.json file,
+     * copied from the level catalog.
      *
      * @return A list of all default boards, or an empty list if any problems are
      * encountered
      */
     public static List<Board> getAllDefaultBoards() {
-        List<Board> boardList = new ArrayList<>();
-
-        try {
-            Objects.requireNonNull(loadJsonObjectFromPath(LEVEL_DATA_PATH, false)).get(DEFAULT_LEVELS).getAsJsonArray().forEach(element -> boardList.add(Board.createBoard(element.getAsJsonObject().get("name").getAsString(), element.getAsJsonObject().get("board").getAsString())));
-        } catch (Exception e) {
-            log.error("Unable to obtain all default levels from the LevelData.json file");
-            return new ArrayList<>();
-        }
-
-        return boardList;
+        return LevelCatalog.getDefault().getAllBoards();
     }
 
     /**
-     * Returns a list of all user boards as specified by the LevelData.json file.
+     * Returns a list of all user boards as specified by the CustomLevelData.json
+     * file, copied from the user level store.
      *
      * @return A list of all user boards
      */
     public static List<Board> getAllUserBoards() {
-        List<Board> boardList = new ArrayList<>();
+        return USER_LEVEL_STORE.getAllBoards();
+    }
 
-        try {
-            Objects.requireNonNull(loadJsonObjectFromPath(CUSTOM_LEVEL_DATA_PATH, true)).get(USER_LEVELS).getAsJsonArray().forEach(element -> boardList.add(Board.createBoard(element.getAsJsonObject().get("name").getAsString(), element.getAsJsonObject().get("board").getAsString())));
-        } catch (Exception e) {
-            log.error("Unable to obtain all user levels from the customLevelData.json file");
-            return new ArrayList<>();
-        }
+    /**
+     * Returns the user board with the specified name.
+     *
+     * @param name The name of the user-defined level
+     * @return A copy of the user board with that name, or null if there is none
+     */
+    public static Board getUserBoard(String name) {
+        return USER_LEVEL_STORE.getBoard(name);
+    }
 
-        return boardList;
+    /**
+     * Returns the difficulty of a user-defined level, which is worked out in the
+     * background once the level is read or saved.
+     *
+     * @param name The name of the user-defined level
+     * @return The difficulty of the level, or null if it has not been rated yet or
+     * cannot be rated
+     */
+    public static Difficulty getUserLevelDifficulty(String name) {
+        return USER_LEVEL_STORE.getDifficulty(name);
+    }
+
+    /**
+     * @return A future completing once every user-defined level read or saved so
+     * far has been rated
+     */
+    public static CompletableFuture<Void> whenUserLevelsRated() {
+        return USER_LEVEL_STORE.whenRated();
     }
 
     /**
-     * Adds a user-defined level to the LevelData.json file based on the provided
-     * Board, if the level with that name does not already exist.
+     * Adds a user-defined level to the CustomLevelData.json file based on the
+     * provided Board, if the level with that name does not already exist.
      *
-     * @param board The Board to add to the LevelData.json file
+     * @param board The Board to add to the CustomLevelData.json file
      * @return True if the user-defined level was saved, false otherwise
      */
     public static boolean addUserLevel(Board board) {
-        JsonObject originalJsonObject = loadJsonObjectFromPath(CUSTOM_LEVEL_DATA_PATH, true);
-
-        if (originalJsonObject != null) {
-            for (JsonElement object : originalJsonObject.get(USER_LEVELS).getAsJsonArray()) {
-                if (object.getAsJsonObject().get("name").getAsString().equals(board.getName())) {
-                    return false;
-                }
-            }
-        }
-        try {
-            FileOutputStream out = new FileOutputStream(CUSTOM_LEVEL_DATA_PATH);
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-
-            JsonObject jsonObject = new JsonObject();
-            jsonObject.addProperty("name", board.getName());
-            jsonObject.addProperty("board", board.toString());
-
-            if (originalJsonObject != null) {
-                originalJsonObject.get(USER_LEVELS).getAsJsonArray().add(jsonObject);
-            }
-
-            out.write(gson.toJson(originalJsonObject).getBytes());
-            out.close();
-            return true;
-        } catch (Exception e) {
-            e.printStackTrace();
-            log.error("Unable to save user-defined level to the customLevelData.json file", e);
-            return false;
-        }
+        return USER_LEVEL_STORE.add(board);
     }
 
     /**
-     * Removes a user-defined level from the LevelData.json file based on the
+     * Removes a user-defined level from the CustomLevelData.json file based on the
      * provided level name, if the level with that name exists.
      *
-     * @param name The name of the level to remove from the LevelData.json file
+     * @param name The name of the level to remove from the CustomLevelData.json
+     *             file
      */
     public static void removeUserLevel(String name) {
-        JsonObject originalJsonObject = loadJsonObjectFromPath(CUSTOM_LEVEL_DATA_PATH, true);
-
-        if (originalJsonObject != null) {
-            for (JsonElement object : originalJsonObject.get(USER_LEVELS).getAsJsonArray()) {
-                if (object.getAsJsonObject().get("name").getAsString().equals(name)) {
-                    try {
-                        FileOutputStream out = new FileOutputStream(CUSTOM_LEVEL_DATA_PATH);
-                        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-
-                        originalJsonObject.get(USER_LEVELS).getAsJsonArray().remove(object);
-
-                        out.write(gson.toJson(originalJsonObject).getBytes());
-                        out.close();
-                        return;
-                    } catch (Exception e) {
-                        log.error("Unable to save user-defined level to the customLevelData.json file", e);
-                        return;
-                    }
-                }
-            }
-        }
+        USER_LEVEL_STORE.remove(name);
     }
 }
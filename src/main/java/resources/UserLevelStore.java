@@ -0,0 +1,396 @@
+package resources;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import lombok.extern.log4j.Log4j;
+import model.Board;
+import util.Difficulty;
+import util.SearchLimits;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class stores the user-defined levels. The levels are read once and
+ * indexed by name, so that looking one up or checking whether a name is taken
+ * never touches the disk.
+ * <p>
+ * The levels live in two files. The level file, in the format of
+ * CustomLevelData.json, holds every level as of the last compaction, and a
+ * journal next to it holds one line of JSON per change made since, each either
+ * adding or removing a level. Saving or removing a level only appends a line to
+ * the journal. Once the journal holds as many changes as there are levels, the
+ * level file is rewritten to a temporary file which then atomically replaces
+ * it, and the journal is cleared. Replaying a change that is already in the
+ * level file has no effect, so the files are consistent at every point of a
+ * compaction.
+ * <p>
+ * The difficulty of each level is worked out on a background thread once the
+ * level is read or saved, within RATING_TIMEOUT and RATING_NODE_BUDGET, and kept
+ * alongside it.
+ *
+ * @author Samuel Gamelin
+ */
+@Log4j
+public final class UserLevelStore {
+
+    /**
+     * The key of the level list in the level file.
+     */
+    private static final String USER_LEVELS = "userLevels";
+
+    /**
+     * The number of changes the journal may always hold before being compacted,
+     * however few levels there are.
+     */
+    static final int COMPACTION_THRESHOLD = 64;
+
+    /**
+     * The longest the rating of a level may take before the level is left
+     * unrated.
+     */
+    static final Duration RATING_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * The most positions the rating of a level may explore before the level is
+     * left unrated.
+     */
+    static final long RATING_NODE_BUDGET = 1_000_000;
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    /**
+     * The thread rating the levels of every store, one level at a time.
+     */
+    private static final ExecutorService RATER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "User level rater");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path levelFile;
+
+    private final Path journalFile;
+
+    /**
+     * The template of every level, by name, in the order they were saved. Null
+     * until the files have been read.
+     */
+    private Map<String, Board> templates;
+
+    /**
+     * The number of changes in the journal.
+     */
+    private int journalEntries;
+
+    /**
+     * Whether the level file exists but could not be read, in which case it is
+     * never overwritten.
+     */
+    private boolean levelFileUnreadable;
+
+    /**
+     * The difficulty of every level rated so far, by name. A level whose rating
+     * was stopped by its limits is never rated.
+     */
+    private final Map<String, Difficulty> difficulties = new HashMap<>();
+
+    /**
+     * Completes once the last level queued for rating has been rated, and with it
+     * every level queued before.
+     */
+    private CompletableFuture<Void> ratings = CompletableFuture.completedFuture(null);
+
+    /**
+     * Constructs a store for the levels of a level file. The files are only read
+     * when the levels are first needed.
+     *
+     * @param levelFile The path of the level file, which need not exist yet
+     */
+    public UserLevelStore(Path levelFile) {
+        this.levelFile = levelFile;
+        this.journalFile = levelFile.resolveSibling(levelFile.getFileName() + ".journal");
+    }
+
+    /**
+     * @return A list holding a new copy of every level, in the order they were
+     * saved
+     */
+    public synchronized List<Board> getAllBoards() {
+        List<Board> boards = new ArrayList<>(getTemplates().size());
+        for (Board template : getTemplates().values()) {
+            boards.add(new Board(template));
+        }
+        return boards;
+    }
+
+    /**
+     * Looks up a level by name.
+     *
+     * @param name The name of the level
+     * @return A new copy of the level's board, or null if there is no such level
+     */
+    public synchronized Board getBoard(String name) {
+        Board template = getTemplates().get(name);
+        return template == null ? null : new Board(template);
+    }
+
+    /**
+     * Saves a level, if no level with the same name exists.
+     *
+     * @param board The board of the level
+     * @return True if the level was saved, false if the name is taken or the level
+     * could not be written
+     */
+    public synchronized boolean add(Board board) {
+        if (getTemplates().containsKey(board.getName())) {
+            return false;
+        }
+        try {
+            appendToJournal(entry("add", board.getName(), board.toString()));
+        } catch (IOException e) {
+            log.error("Unable to save user-defined level to " + journalFile, e);
+            return false;
+        }
+        Board template = new Board(board);
+        templates.put(board.getName(), template);
+        rate(template);
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * Removes a level, if it exists.
+     *
+     * @param name The name of the level
+     * @return True if the level was removed, false if it does not exist or the
+     * removal could not be written
+     */
+    public synchronized boolean remove(String name) {
+        if (!getTemplates().containsKey(name)) {
+            return false;
+        }
+        try {
+            appendToJournal(entry("remove", name, null));
+        } catch (IOException e) {
+            log.error("Unable to remove user-defined level from " + journalFile, e);
+            return false;
+        }
+        templates.remove(name);
+        difficulties.remove(name);
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * Looks up the difficulty of a level, which is worked out in the background
+     * once the level is read or saved.
+     *
+     * @param name The name of the level
+     * @return The difficulty of the level, or null if there is no such level, it
+     * has not been rated yet or it is too large to rate
+     */
+    public synchronized Difficulty getDifficulty(String name) {
+        getTemplates();
+        return difficulties.get(name);
+    }
+
+    /**
+     * @return A future completing once every level read or saved so far has been
+     * rated
+     */
+    public synchronized CompletableFuture<Void> whenRated() {
+        getTemplates();
+        return ratings;
+    }
+
+    /**
+     * Rewrites the level file with every level and clears the journal.
+     *
+     * @throws IOException If the level file could not be written, in which case
+     *                     the journal is kept
+     */
+    public synchronized void compact() throws IOException {
+        getTemplates();
+        if (levelFileUnreadable) {
+            throw new IOException("The unreadable level file " + levelFile + " would be overwritten");
+        }
+        JsonArray levels = new JsonArray();
+        for (Board template : templates.values()) {
+            levels.add(entry(null, template.getName(), template.toString()));
+        }
+        JsonObject levelData = new JsonObject();
+        levelData.add(USER_LEVELS, levels);
+
+        Path temporaryFile = levelFile.resolveSibling(levelFile.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+            GSON.toJson(levelData, writer);
+        }
+        try {
+            Files.move(temporaryFile, levelFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile, levelFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.deleteIfExists(journalFile);
+        journalEntries = 0;
+    }
+
+    /**
+     * @return The template of every level, reading the files if that has not been
+     * done yet
+     */
+    private Map<String, Board> getTemplates() {
+        if (templates == null) {
+            templates = new LinkedHashMap<>();
+            readLevelFile();
+            readJournal();
+            compactIfNeeded();
+            templates.values().forEach(this::rate);
+        }
+        return templates;
+    }
+
+    /**
+     * Queues a level for rating. Its difficulty is kept unless the level has been
+     * removed or replaced by the time it is worked out.
+     *
+     * @param template The template of the level
+     */
+    private void rate(Board template) {
+        ratings = CompletableFuture.runAsync(() -> {
+            Difficulty difficulty = Difficulty.of(template, new SearchLimits(RATING_TIMEOUT, RATING_NODE_BUDGET));
+            synchronized (this) {
+                if (difficulty != null && templates.get(template.getName()) == template) {
+                    difficulties.put(template.getName(), difficulty);
+                }
+            }
+        }, RATER);
+    }
+
+    /**
+     * Reads the levels of the level file. A missing or unreadable level file holds
+     * no levels, although only a missing one may be replaced.
+     */
+    private void readLevelFile() {
+        try (BufferedReader reader = Files.newBufferedReader(levelFile, StandardCharsets.UTF_8)) {
+            JsonObject levelData = JsonParser.parseReader(reader).getAsJsonObject();
+            if (levelData.has(USER_LEVELS)) {
+                for (JsonElement element : levelData.getAsJsonArray(USER_LEVELS)) {
+                    apply(element.getAsJsonObject());
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // No level has been saved yet
+        } catch (IOException | RuntimeException e) {
+            log.error("Unable to obtain all user levels from " + levelFile, e);
+            levelFileUnreadable = true;
+        }
+    }
+
+    /**
+     * Replays the changes in the journal. A line that cannot be read, such as one
+     * cut short by a crash, is skipped.
+     */
+    private void readJournal() {
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                journalEntries++;
+                try {
+                    apply(JsonParser.parseString(line).getAsJsonObject());
+                } catch (RuntimeException e) {
+                    log.warn("Skipping unreadable change in " + journalFile + ": " + line);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // Nothing has changed since the last compaction
+        } catch (IOException e) {
+            log.error("Unable to read the user level journal " + journalFile, e);
+        }
+    }
+
+    /**
+     * Applies a level or a change to the levels read so far.
+     *
+     * @param entry A level of the level file, or a change of the journal
+     */
+    private void apply(JsonObject entry) {
+        String name = entry.get("name").getAsString();
+        if (entry.has("op") && "remove".equals(entry.get("op").getAsString())) {
+            templates.remove(name);
+            return;
+        }
+        Board board = Board.createBoard(name, entry.get("board").getAsString());
+        if (board == null) {
+            log.error("Skipping user-defined level " + name + ", which cannot be read");
+        } else {
+            templates.putIfAbsent(name, board);
+        }
+    }
+
+    /**
+     * Appends a change to the journal, forcing it to the disk.
+     *
+     * @param entry The change
+     * @throws IOException If the change could not be written
+     */
+    private void appendToJournal(JsonObject entry) throws IOException {
+        Files.write(journalFile, (entry + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE,
+                StandardOpenOption.SYNC);
+        journalEntries++;
+    }
+
+    /**
+     * Compacts the files once the journal holds as many changes as there are
+     * levels, so that each change costs constant time on average.
+     */
+    private void compactIfNeeded() {
+        if (!levelFileUnreadable && journalEntries >= Math.max(COMPACTION_THRESHOLD, templates.size())) {
+            try {
+                compact();
+            } catch (IOException e) {
+                log.error("Unable to compact the user levels into " + levelFile, e);
+            }
+        }
+    }
+
+    /**
+     * @param op    The kind of change, or null for a level of the level file
+     * @param name  The name of the level
+     * @param board The board of the level, or null if it is removed
+     * @return The JSON object describing the level or change
+     */
+    private static JsonObject entry(String op, String name, String board) {
+        JsonObject entry = new JsonObject();
+        if (op != null) {
+            entry.addProperty("op", op);
+        }
+        entry.addProperty("name", name);
+        if (board != null) {
+            entry.addProperty("board", board);
+        }
+        return entry;
+    }
+}
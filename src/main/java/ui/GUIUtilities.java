@@ -232,8 +232,22 @@ public final class GUIUtilities {
      * @param board   The corresponding board
      */
     public static void updateView(JButton[][] buttons, Board board) {
+        updateView(buttons, board, BoardChange.ALL);
+    }
+
+    /**
+     * Updates the icons of the buttons whose tiles changed to match the board.
+     *
+     * @param buttons The buttons that are to be updated
+     * @param board   The corresponding board
+     * @param change  The tiles that changed
+     */
+    public static void updateView(JButton[][] buttons, Board board, BoardChange change) {
         for (int x = 0; x < Board.SIZE; x++) {
             for (int y = 0; y < Board.SIZE; y++) {
+                if (!change.isChanged(x, y)) {
+                    continue;
+                }
                 Piece piece = board.getPiece(x, y);
                 if (piece != null) {
                     if (piece instanceof Mushroom) {
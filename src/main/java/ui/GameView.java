@@ -7,6 +7,7 @@ import controller.GameController;
 import controller.GameController.ClickValidity;
 import lombok.extern.log4j.Log4j;
 import model.Board;
+import model.BoardChange;
 import model.BoardListener;
 import resources.Resources;
 import util.Move;
@@ -203,6 +204,7 @@ public class GameView extends JFrame implements ActionListener, BoardListener, M
      * Resets the game.
      */
     private void resetGame() {
+        gameController.cancelHint();
         board = gameController.reset();
         // Generate the hints as soon as possible to minimize waiting time.
         Thread hintThread = new Thread(this, "Hint");
@@ -251,8 +253,8 @@ public class GameView extends JFrame implements ActionListener, BoardListener, M
     }
 
     @Override
-    public void handleBoardChange() {
-        GUIUtilities.updateView(buttons, board);
+    public void handleBoardChange(BoardChange change) {
+        GUIUtilities.updateView(buttons, board, change);
         if (board.isInWinningState()) {
             if (Resources.SOLVED != null && gameState) {
                 Resources.SOLVED.start();
@@ -312,10 +314,15 @@ public class GameView extends JFrame implements ActionListener, BoardListener, M
         if (e.getSource() == menuMain && GUIUtilities.displayOptionDialog(null,
                 "Are you sure you want to return to the main menu? (Any " + "unsaved " +
                 "progress will be lost)", "Return to Main Menu", new String[]{"Yes", "No"}) == 0) {
+            gameController.cancelHint();
             this.dispose();
             SwingUtilities.invokeLater(MainMenu::new);
         } else if (e.getSource() == menuHint) {
             bestMove = gameController.getNextBestMove();
+            if (bestMove.direction() == Move.MoveDirection.INVALID) {
+                GUIUtilities.displayMessageDialog(this, "No hint is available for this board", "Hint");
+                return;
+            }
             if (!buttons[bestMove.xStart][bestMove.yStart].getBorder().equals(GUIUtilities.SELECTED_BORDER)) {
                 buttons[bestMove.xStart][bestMove.yStart].setBorder(GUIUtilities.HINT_BORDER_START);
             }
@@ -4,8 +4,8 @@ import model.*;
 import model.Fox.Direction;
 import model.Rabbit.RabbitColour;
 import resources.Resources;
-import util.Move;
-import util.Move.MoveDirection;
+import util.SearchLimits;
+import util.SearchResult;
 import util.Solver;
 
 import javax.swing.*;
@@ -14,6 +14,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.time.Duration;
 
 /**
  * This class represents a level builder which allows the user to create and
@@ -24,6 +25,12 @@ import java.awt.event.MouseListener;
  */
 public class LevelBuilder extends JFrame implements ActionListener, MouseListener, BoardListener {
 
+    /**
+     * The longest the solver may take to check that a level can be solved before
+     * it is saved.
+     */
+    private static final Duration SAVE_CHECK_TIMEOUT = Duration.ofSeconds(10);
+
     /**
      * Menu Items to be added to the JMenuBar
      */
@@ -182,26 +189,34 @@ public class LevelBuilder extends JFrame implements ActionListener, MouseListene
         if (currentIcon == Resources.FOX_HEAD_UP && y + 1 < 5 && y + 1 > -1 && !board.isOccupied(x, y + 1) &&
             currentTile && board.tileType(x, y + 1)) {
             Fox fox = new Fox(Direction.UP, numberOfFoxes == 1);
-            board.setPiece(fox, x, y);
-            board.setPiece(fox.getOtherHalf(), x, y + 1);
+            board.batch(() -> {
+                board.setPiece(fox, x, y);
+                board.setPiece(fox.getOtherHalf(), x, y + 1);
+            });
             numberOfFoxes++;
         } else if (currentIcon == Resources.FOX_TAIL_UP && y - 1 < 5 && y - 1 > -1 && !board.isOccupied(x, y - 1) &&
                    currentTile && board.tileType(x, y - 1)) {
             Fox fox = new Fox(Direction.UP, numberOfFoxes == 1);
-            board.setPiece(fox, x, y - 1);
-            board.setPiece(fox.getOtherHalf(), x, y);
+            board.batch(() -> {
+                board.setPiece(fox, x, y - 1);
+                board.setPiece(fox.getOtherHalf(), x, y);
+            });
             numberOfFoxes++;
         } else if (currentIcon == Resources.FOX_HEAD_LEFT && x + 1 < 5 && x + 1 > -1 && !board.isOccupied(x + 1, y) &&
                    currentTile && board.tileType(x + 1, y)) {
             Fox fox = new Fox(Direction.LEFT, numberOfFoxes == 1);
-            board.setPiece(fox, x, y);
-            board.setPiece(fox.getOtherHalf(), x + 1, y);
+            board.batch(() -> {
+                board.setPiece(fox, x, y);
+                board.setPiece(fox.getOtherHalf(), x + 1, y);
+            });
             numberOfFoxes++;
         } else if (currentIcon == Resources.FOX_TAIL_LEFT && x - 1 < 5 && x - 1 > -1 && !board.isOccupied(x - 1, y) &&
                    currentTile && board.tileType(x - 1, y)) {
             Fox fox = new Fox(Direction.LEFT, numberOfFoxes == 1);
-            board.setPiece(fox, x - 1, y);
-            board.setPiece(fox.getOtherHalf(), x, y);
+            board.batch(() -> {
+                board.setPiece(fox, x - 1, y);
+                board.setPiece(fox.getOtherHalf(), x, y);
+            });
             numberOfFoxes++;
         } else if (currentIcon == Resources.RABBIT_WHITE) {
             board.setPiece(new Rabbit(RabbitColour.WHITE), x, y);
@@ -372,8 +387,8 @@ public class LevelBuilder extends JFrame implements ActionListener, MouseListene
      * Updates the buttons when there is a change on the board
      */
     @Override
-    public void handleBoardChange() {
-        GUIUtilities.updateView(buttons, board);
+    public void handleBoardChange(BoardChange change) {
+        GUIUtilities.updateView(buttons, board, change);
     }
 
     @Override
@@ -384,16 +399,15 @@ public class LevelBuilder extends JFrame implements ActionListener, MouseListene
             this.dispose();
             SwingUtilities.invokeLater(MainMenu::new);
         } else if (e.getSource() == saveBoard) {
-            Board boardCopy = new Board(board);
-            do {
-                Move temp = Solver.getNextBestMove(boardCopy);
-                if (temp.direction() == MoveDirection.INVALID || temp.xStart == -1) {
-                    JPanel panel = new JPanel(new BorderLayout(0, 15));
-                    panel.add(new JLabel("This board cannot be solved. Please try again!"), BorderLayout.NORTH);
-                    JOptionPane.showMessageDialog(this, panel, "Save", JOptionPane.INFORMATION_MESSAGE);
-                }
-                boardCopy.move(temp);
-            } while ((!boardCopy.isInWinningState()));
+            SearchResult result = new Solver().solve(board, SearchLimits.withTimeout(SAVE_CHECK_TIMEOUT));
+            if (result.getStatus() != SearchResult.Status.SOLVED) {
+                JPanel panel = new JPanel(new BorderLayout(0, 15));
+                panel.add(new JLabel(result.getStatus() == SearchResult.Status.UNSOLVABLE ?
+                        "This board cannot be solved. Please try again!" :
+                        "This board could not be checked in time. Please try a simpler board!"), BorderLayout.NORTH);
+                JOptionPane.showMessageDialog(this, panel, "Save", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
             String levelNameString;
             do {
                 levelNameString = JOptionPane.showInputDialog("Please enter a name for the level: ");
@@ -445,23 +459,31 @@ public class LevelBuilder extends JFrame implements ActionListener, MouseListene
                     numberOfMushrooms--;
                 } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_HEAD_UP ||
                            buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_TAIL_DOWN) {
-                    board.removePiece(itemToBeModifiedX, itemToBeModifiedY);
-                    board.removePiece(itemToBeModifiedX, itemToBeModifiedY + 1);
+                    board.batch(() -> {
+                        board.removePiece(itemToBeModifiedX, itemToBeModifiedY);
+                        board.removePiece(itemToBeModifiedX, itemToBeModifiedY + 1);
+                    });
                     foxRemoved();
                 } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_TAIL_UP ||
                            buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_HEAD_DOWN) {
-                    board.removePiece(itemToBeModifiedX, itemToBeModifiedY);
-                    board.removePiece(itemToBeModifiedX, itemToBeModifiedY - 1);
+                    board.batch(() -> {
+                        board.removePiece(itemToBeModifiedX, itemToBeModifiedY);
+                        board.removePiece(itemToBeModifiedX, itemToBeModifiedY - 1);
+                    });
                     foxRemoved();
                 } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_HEAD_LEFT ||
                            buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_TAIL_RIGHT) {
-                    board.removePiece(itemToBeModifiedX, itemToBeModifiedY);
-                    board.removePiece(itemToBeModifiedX + 1, itemToBeModifiedY);
+                    board.batch(() -> {
+                        board.removePiece(itemToBeModifiedX, itemToBeModifiedY);
+                        board.removePiece(itemToBeModifiedX + 1, itemToBeModifiedY);
+                    });
                     foxRemoved();
                 } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_TAIL_LEFT ||
                            buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_HEAD_RIGHT) {
-                    board.removePiece(itemToBeModifiedX, itemToBeModifiedY);
-                    board.removePiece(itemToBeModifiedX - 1, itemToBeModifiedY);
+                    board.batch(() -> {
+                        board.removePiece(itemToBeModifiedX, itemToBeModifiedY);
+                        board.removePiece(itemToBeModifiedX - 1, itemToBeModifiedY);
+                    });
                     foxRemoved();
                 }
             }
@@ -475,43 +497,59 @@ public class LevelBuilder extends JFrame implements ActionListener, MouseListene
                     Fox oldFox = (Fox) board.getPiece(itemToBeModifiedX, itemToBeModifiedY);
                     if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_HEAD_UP) {
                         Fox fox = new Fox(Direction.DOWN, oldFox.getID());
-                        board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY + 1);
-                        board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY);
+                        board.batch(() -> {
+                            board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY + 1);
+                            board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY);
+                        });
                         flipped = true;
                     } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_TAIL_UP) {
                         Fox fox = new Fox(Direction.DOWN, oldFox.getID());
-                        board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY);
-                        board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY - 1);
+                        board.batch(() -> {
+                            board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY);
+                            board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY - 1);
+                        });
                         flipped = true;
                     } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_HEAD_LEFT) {
                         Fox fox = new Fox(Direction.RIGHT, oldFox.getID());
-                        board.setPiece(fox, itemToBeModifiedX + 1, itemToBeModifiedY);
-                        board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY);
+                        board.batch(() -> {
+                            board.setPiece(fox, itemToBeModifiedX + 1, itemToBeModifiedY);
+                            board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY);
+                        });
                         flipped = true;
                     } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_TAIL_LEFT) {
                         Fox fox = new Fox(Direction.RIGHT, oldFox.getID());
-                        board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY);
-                        board.setPiece(fox.getOtherHalf(), itemToBeModifiedX - 1, itemToBeModifiedY);
+                        board.batch(() -> {
+                            board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY);
+                            board.setPiece(fox.getOtherHalf(), itemToBeModifiedX - 1, itemToBeModifiedY);
+                        });
                         flipped = true;
                     } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_HEAD_DOWN) {
                         Fox fox = new Fox(Direction.UP, oldFox.getID());
-                        board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY - 1);
-                        board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY);
+                        board.batch(() -> {
+                            board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY - 1);
+                            board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY);
+                        });
                         flipped = true;
                     } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_TAIL_DOWN) {
                         Fox fox = new Fox(Direction.UP, oldFox.getID());
-                        board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY);
-                        board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY + 1);
+                        board.batch(() -> {
+                            board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY);
+                            board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY + 1);
+                        });
                         flipped = true;
                     } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_HEAD_RIGHT) {
                         Fox fox = new Fox(Direction.LEFT, oldFox.getID());
-                        board.setPiece(fox, itemToBeModifiedX - 1, itemToBeModifiedY);
-                        board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY);
+                        board.batch(() -> {
+                            board.setPiece(fox, itemToBeModifiedX - 1, itemToBeModifiedY);
+                            board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY);
+                        });
                         flipped = true;
                     } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_TAIL_RIGHT) {
                         Fox fox = new Fox(Direction.LEFT, oldFox.getID());
-                        board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY);
-                        board.setPiece(fox.getOtherHalf(), itemToBeModifiedX + 1, itemToBeModifiedY);
+                        board.batch(() -> {
+                            board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY);
+                            board.setPiece(fox.getOtherHalf(), itemToBeModifiedX + 1, itemToBeModifiedY);
+                        });
                         flipped = true;
                     }
                 }
@@ -3,6 +3,7 @@ package ui;
 import model.*;
 import model.Fox.FoxType;
 import resources.Resources;
+import util.Difficulty;
 
 import javax.swing.*;
 import javax.swing.border.BevelBorder;
@@ -12,6 +13,8 @@ import javax.swing.text.StyledDocument;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 
@@ -37,7 +40,7 @@ class LevelSelector extends JFrame implements ActionListener {
     private static final BevelBorder DEFAULT = new BevelBorder(BevelBorder.RAISED, Color.BLACK, Color.BLACK);
 
     private final JButton btnStartLevel, btnMainMenu, btnCustomLevels, btnNextPage, btnLastPage, btnLeftLevel,
-            btnMiddleLevel, btnRightLevel, btnDeleteLevel;
+            btnMiddleLevel, btnRightLevel, btnDeleteLevel, btnSortLevels, btnFilterLevels;
 
     private final JTextPane levelLabelLeft, levelLabelMiddle, levelLabelRight;
 
@@ -47,9 +50,25 @@ class LevelSelector extends JFrame implements ActionListener {
 
     private List<Board> allCustomLevels;
 
+    /**
+     * The custom levels on display, sorted and filtered as chosen.
+     */
+    private List<Board> customLevels;
+
+    /**
+     * The only rating of the custom levels on display, null to display all of them.
+     */
+    private Difficulty.Rating ratingFilter;
+
     private int pageNumber, lastPage;
 
-    private boolean custom;
+    private boolean custom, sortByDifficulty;
+
+    /**
+     * Whether the custom levels on display are to be updated once every custom
+     * level has been rated.
+     */
+    private boolean awaitingRatings;
 
     /**
      * Construct a new LevelSelector.
@@ -66,6 +85,7 @@ class LevelSelector extends JFrame implements ActionListener {
          */
         allDefaultLevels = Resources.getAllDefaultBoards();
         allCustomLevels = Resources.getAllUserBoards();
+        customLevels = allCustomLevels;
         determineLastPage(allDefaultLevels);
 
         // Set the layout and background of the level selector JFrame.
@@ -88,6 +108,10 @@ class LevelSelector extends JFrame implements ActionListener {
         btnDeleteLevel.setForeground(Color.WHITE);
         btnDeleteLevel.setVisible(false);
         btnDeleteLevel.setEnabled(false);
+        setUpMenuButton(btnSortLevels = new JButton("Sort by Difficulty"));
+        setUpMenuButton(btnFilterLevels = new JButton("Difficulty: Any"));
+        btnSortLevels.setVisible(false);
+        btnFilterLevels.setVisible(false);
         btnStartLevel.setBackground(new Color(0, 156, 0));
         btnStartLevel.setEnabled(false);
         btnLastPage.setEnabled(false);
@@ -136,7 +160,13 @@ class LevelSelector extends JFrame implements ActionListener {
         // Creating a JPanel to hold the delete level button.
         JPanel deletePanel = new JPanel();
         setUpJPanel(deletePanel, true);
+        deletePanel.add(Box.createHorizontalGlue());
+        deletePanel.add(btnSortLevels);
+        deletePanel.add(Box.createHorizontalGlue());
         deletePanel.add(btnDeleteLevel);
+        deletePanel.add(Box.createHorizontalGlue());
+        deletePanel.add(btnFilterLevels);
+        deletePanel.add(Box.createHorizontalGlue());
 
         // Creating a JPanel to store all of the buttons for the level selector.
         JPanel allButtons = new JPanel();
@@ -437,15 +467,15 @@ class LevelSelector extends JFrame implements ActionListener {
             if (btnLeftLevel.getBorder().equals(GUIUtilities.SELECTED_BORDER)) {
                 int level = (pageNumber * 3) - 2;
                 if (!custom) SwingUtilities.invokeLater(new GameView(Resources.getDefaultBoardByLevel(level), level));
-                else SwingUtilities.invokeLater(new GameView(allCustomLevels.get(pageNumber * 3 - 3), -1));
+                else SwingUtilities.invokeLater(new GameView(customLevels.get(pageNumber * 3 - 3), -1));
             } else if (btnMiddleLevel.getBorder().equals(GUIUtilities.SELECTED_BORDER)) {
                 int level = (pageNumber * 3) - 1;
                 if (!custom) SwingUtilities.invokeLater(new GameView(Resources.getDefaultBoardByLevel(level), level));
-                else SwingUtilities.invokeLater(new GameView(allCustomLevels.get(pageNumber * 3 - 2), -1));
+                else SwingUtilities.invokeLater(new GameView(customLevels.get(pageNumber * 3 - 2), -1));
             } else {
                 int level = (pageNumber * 3);
                 if (!custom) SwingUtilities.invokeLater(new GameView(Resources.getDefaultBoardByLevel(level), level));
-                else SwingUtilities.invokeLater(new GameView(allCustomLevels.get(pageNumber * 3 - 1), -1));
+                else SwingUtilities.invokeLater(new GameView(customLevels.get(pageNumber * 3 - 1), -1));
             }
         } else if (e.getSource() == btnMainMenu) {
             this.dispose();
@@ -458,7 +488,7 @@ class LevelSelector extends JFrame implements ActionListener {
             btnNextPage.setEnabled(pageNumber != lastPage);
             btnStartLevel.setEnabled(false);
             if (custom) {
-                updateView(allCustomLevels);
+                updateView(customLevels);
                 btnDeleteLevel.setEnabled(false);
             } else updateView(allDefaultLevels);
         } else if (e.getSource() == btnLastPage) {
@@ -467,7 +497,7 @@ class LevelSelector extends JFrame implements ActionListener {
             btnLastPage.setEnabled(pageNumber != 1);
             btnStartLevel.setEnabled(false);
             if (custom) {
-                updateView(allCustomLevels);
+                updateView(customLevels);
                 btnDeleteLevel.setEnabled(false);
             } else updateView(allDefaultLevels);
         } else if (e.getSource() == btnCustomLevels) {
@@ -482,13 +512,17 @@ class LevelSelector extends JFrame implements ActionListener {
                     determineLastPage(allDefaultLevels);
                     updateView(allDefaultLevels);
                     btnDeleteLevel.setVisible(false);
+                    btnSortLevels.setVisible(false);
+                    btnFilterLevels.setVisible(false);
                 } else {
                     custom = true;
                     btnCustomLevels.setText("Go to Default Levels");
-                    determineLastPage(allCustomLevels);
-                    updateView(allCustomLevels);
+                    determineLastPage(customLevels);
+                    updateView(customLevels);
                     btnDeleteLevel.setEnabled(false);
                     btnDeleteLevel.setVisible(true);
+                    btnSortLevels.setVisible(true);
+                    btnFilterLevels.setVisible(true);
                 }
                 btnNextPage.setEnabled(lastPage != 1);
                 btnLastPage.setEnabled(false);
@@ -503,11 +537,12 @@ class LevelSelector extends JFrame implements ActionListener {
                 Resources.removeUserLevel(levelLabelMiddle.getText());
             else Resources.removeUserLevel(levelLabelRight.getText());
             allCustomLevels = Resources.getAllUserBoards();
-            determineLastPage(allCustomLevels);
+            updateCustomLevels();
+            determineLastPage(customLevels);
             pageNumber = 1;
             btnLastPage.setEnabled(false);
             if (allCustomLevels.size() != 0) {
-                updateView(allCustomLevels);
+                updateView(customLevels);
                 btnDeleteLevel.setEnabled(false);
             } else {
                 custom = false;
@@ -515,9 +550,103 @@ class LevelSelector extends JFrame implements ActionListener {
                 determineLastPage(allDefaultLevels);
                 updateView(allDefaultLevels);
                 btnDeleteLevel.setVisible(false);
+                btnSortLevels.setVisible(false);
+                btnFilterLevels.setVisible(false);
             }
             btnNextPage.setEnabled(lastPage != 1);
             btnStartLevel.setEnabled(false);
+        } else if (e.getSource() == btnSortLevels) {
+            sortByDifficulty = !sortByDifficulty;
+            updateCustomLevels();
+            showFirstCustomPage();
+        } else if (e.getSource() == btnFilterLevels) {
+            selectNextRating();
+            updateCustomLevels();
+            showFirstCustomPage();
+        }
+    }
+
+    /**
+     * @param board A custom level
+     * @return The rating of the custom level, or null if it has not been rated
+     */
+    private static Difficulty.Rating getRating(Board board) {
+        Difficulty difficulty = Resources.getUserLevelDifficulty(board.getName());
+        return difficulty == null ? null : difficulty.getRating();
+    }
+
+    /**
+     * Update the custom levels on display once every custom level has been rated,
+     * should some still be rated in the background.
+     */
+    private void awaitRatings() {
+        if (awaitingRatings || Resources.whenUserLevelsRated().isDone()) {
+            return;
+        }
+        awaitingRatings = true;
+        Resources.whenUserLevelsRated().whenComplete((ignored, e) -> SwingUtilities.invokeLater(() -> {
+            awaitingRatings = false;
+            if (custom && (sortByDifficulty || ratingFilter != null)) {
+                updateCustomLevels();
+                showFirstCustomPage();
+            }
+        }));
+    }
+
+    /**
+     * Move the rating filter on to the next rating held by at least one custom
+     * level, going back to displaying all custom levels after the hardest one.
+     */
+    private void selectNextRating() {
+        Difficulty.Rating[] ratings = Difficulty.Rating.values();
+        do {
+            ratingFilter = ratingFilter == null ? ratings[0] :
+                    ratingFilter.ordinal() + 1 < ratings.length ? ratings[ratingFilter.ordinal() + 1] : null;
+        } while (ratingFilter != null && allCustomLevels.stream().noneMatch(board ->
+                getRating(board) == ratingFilter));
+    }
+
+    /**
+     * Update the custom levels on display from all of the custom levels, keeping
+     * those with the chosen rating and sorting them from the easiest to the
+     * hardest if requested. Should no custom level have the chosen rating, every
+     * custom level is displayed. Levels are rated in the background, so those not
+     * rated yet are left out of any rating and sorted last until they are.
+     */
+    private void updateCustomLevels() {
+        if (sortByDifficulty || ratingFilter != null) {
+            awaitRatings();
+        }
+        List<Board> levels = new ArrayList<>();
+        for (Board board : allCustomLevels) {
+            if (ratingFilter == null || getRating(board) == ratingFilter) {
+                levels.add(board);
+            }
         }
+        if (levels.isEmpty()) {
+            ratingFilter = null;
+            levels.addAll(allCustomLevels);
+        }
+        if (sortByDifficulty) {
+            levels.sort(Comparator.comparing(board -> Resources.getUserLevelDifficulty(board.getName()),
+                    Comparator.nullsLast(Comparator.comparingInt(Difficulty::getScore))));
+        }
+        customLevels = levels;
+        btnSortLevels.setText(sortByDifficulty ? "Sort by Creation" : "Sort by Difficulty");
+        btnFilterLevels.setText("Difficulty: " + (ratingFilter == null ? "Any" :
+                ratingFilter.name().charAt(0) + ratingFilter.name().substring(1).toLowerCase()));
+    }
+
+    /**
+     * Display the first page of the custom levels on display.
+     */
+    private void showFirstCustomPage() {
+        pageNumber = 1;
+        determineLastPage(customLevels);
+        updateView(customLevels);
+        btnNextPage.setEnabled(lastPage != 1);
+        btnLastPage.setEnabled(false);
+        btnStartLevel.setEnabled(false);
+        btnDeleteLevel.setEnabled(false);
     }
 }
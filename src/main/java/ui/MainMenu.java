@@ -5,8 +5,11 @@ import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
 import lombok.extern.log4j.Log4j;
 import model.Board;
+import resources.LevelCatalog;
 import resources.Resources;
 import util.Move;
+import util.SolutionCache;
+import util.Solver;
 
 import javax.swing.*;
 import java.awt.*;
@@ -66,6 +69,8 @@ public class MainMenu extends JFrame implements ActionListener {
      * @param args The command-line arguments
      */
     public static void main(String[] args) {
+        // Parse the default levels while the rest of the game starts up
+        LevelCatalog.preload();
         Path path = Paths.get(System.getProperty("user.home") + File.separator + ".Rabbits and Foxes!");
         File customLevelFolder = new File(path.toString());
 
@@ -91,6 +96,8 @@ public class MainMenu extends JFrame implements ActionListener {
             }
         }
 
+        Solver.setDefaultSolutionCache(new SolutionCache(path.resolve("SolutionCache.txt")));
+
         GUIUtilities.applyDefaults();
         SwingUtilities.invokeLater(MainMenu::new);
     }
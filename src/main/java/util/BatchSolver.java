@@ -0,0 +1,228 @@
+package util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import model.Board;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class solves every level of a level file from the command line, without
+ * any user interface. Level files are in the format of LevelData.json or
+ * CustomLevelData.json: the levels under "defaultLevels" and "userLevels" are
+ * solved, each being an object with a name and a board.
+ * <p>
+ * Levels are solved in parallel on a pool of workers, each level with a solver
+ * session of its own, and one line of JSON is written per level in the order of
+ * the file. A line holds the name of the level, the status of its search (see
+ * SearchResult), the number of moves and the moves themselves, each as
+ * [xStart, yStart, xEnd, yEnd], the number of positions expanded and visited,
+ * and the time taken in milliseconds. Levels that cannot be read have the
+ * status INVALID and an error instead.
+ *
+ * @author Samuel Gamelin
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BatchSolver {
+
+    /**
+     * The status of a level whose board cannot be read.
+     */
+    static final String INVALID = "INVALID";
+
+    private static final String USAGE = "Usage: BatchSolver <level file> [<output file>] [--threads <count>] " +
+                                        "[--strategy <strategy>] [--timeout <seconds>]";
+
+    /**
+     * Solves every level of a level file, writing the results as JSON Lines to the
+     * output file, or to the standard output if there is none. The process exits
+     * with status 2 if any level could not be solved, and 1 if the arguments or
+     * files are unusable.
+     *
+     * @param args The path of the level file, optionally followed by the path of
+     *             the output file and by the number of workers, the search
+     *             strategy and the time allowed for each level
+     * @throws IOException If the level file cannot be read or the output cannot be
+     *                     written
+     */
+    public static void main(String[] args) throws IOException {
+        String levelFile = null, outputFile = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Solver.Strategy strategy = Solver.Strategy.BREADTH_FIRST;
+        Duration timeout = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--strategy" -> strategy = Solver.Strategy.valueOf(args[++i]);
+                    case "--timeout" -> timeout = Duration.ofSeconds(Long.parseLong(args[++i]));
+                    default -> {
+                        if (levelFile == null) {
+                            levelFile = args[i];
+                        } else if (outputFile == null) {
+                            outputFile = args[i];
+                        } else {
+                            throw new IllegalArgumentException("Unexpected argument " + args[i]);
+                        }
+                    }
+                }
+            }
+            if (levelFile == null || threads <= 0) {
+                throw new IllegalArgumentException("A level file and a positive number of threads are required");
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        List<JsonObject> levels;
+        try (Reader reader = Files.newBufferedReader(Paths.get(levelFile), StandardCharsets.UTF_8)) {
+            levels = readLevels(reader);
+        }
+        int unsolved;
+        try (Writer writer = outputFile == null ?
+                new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) :
+                Files.newBufferedWriter(Paths.get(outputFile), StandardCharsets.UTF_8)) {
+            unsolved = solveAll(levels, strategy, timeout, threads, writer);
+        }
+        System.err.println("Solved " + (levels.size() - unsolved) + " of " + levels.size() + " levels");
+        if (unsolved > 0) {
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Reads the levels of a level file.
+     *
+     * @param reader The reader of the level file
+     * @return The levels of the file, default levels first
+     */
+    static List<JsonObject> readLevels(Reader reader) {
+        JsonObject levelData = JsonParser.parseReader(reader).getAsJsonObject();
+        List<JsonObject> levels = new ArrayList<>();
+        for (String key : new String[]{"defaultLevels", "userLevels"}) {
+            if (levelData.has(key)) {
+                for (JsonElement element : levelData.getAsJsonArray(key)) {
+                    levels.add(element.getAsJsonObject());
+                }
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Solves levels in parallel, writing one line of JSON per level in the order
+     * of the levels.
+     *
+     * @param levels   The levels, each with a name and a board
+     * @param strategy The search strategy to use
+     * @param timeout  The time allowed to search each level, or null for no limit
+     * @param threads  The number of workers
+     * @param writer   The writer of the results, which is flushed after every line
+     * @return The number of levels that were not solved
+     * @throws IOException If the results cannot be written
+     */
+    static int solveAll(List<JsonObject> levels, Solver.Strategy strategy, Duration timeout, int threads,
+                        Writer writer) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<JsonObject>> results = new ArrayList<>(levels.size());
+            for (JsonObject level : levels) {
+                results.add(executor.submit(() -> solve(level, strategy, timeout)));
+            }
+            Gson gson = new Gson();
+            int unsolved = 0;
+            for (Future<JsonObject> future : results) {
+                JsonObject result = future.get();
+                if (!SearchResult.Status.SOLVED.name().equals(result.get("status").getAsString())) {
+                    unsolved++;
+                }
+                writer.write(gson.toJson(result));
+                writer.write(System.lineSeparator());
+                writer.flush();
+            }
+            return unsolved;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while solving levels", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Solves a single level, following the session's hints from the first search
+     * to a win.
+     *
+     * @param level    The level, with a name and a board
+     * @param strategy The search strategy to use
+     * @param timeout  The time allowed to search the level, or null for no limit
+     * @return The result of the level, as a JSON object
+     */
+    static JsonObject solve(JsonObject level, Solver.Strategy strategy, Duration timeout) {
+        long start = System.nanoTime();
+        JsonObject result = new JsonObject();
+        result.add("name", level.get("name"));
+        Board board;
+        try {
+            board = Board.createBoard(level.get("name").getAsString(), level.get("board").getAsString());
+        } catch (RuntimeException e) {
+            board = null;
+        }
+        if (board == null || PackedBoard.encode(board) == PackedBoard.INVALID) {
+            result.addProperty("status", INVALID);
+            result.addProperty("error", "The board cannot be read");
+            return result;
+        }
+
+        Solver solver = new Solver(strategy, null, Solver.DEFAULT_CAPACITY);
+        SearchResult search = solver.solve(board, new SearchLimits(timeout, Long.MAX_VALUE));
+        JsonArray solution = new JsonArray();
+        if (search.getStatus() == SearchResult.Status.SOLVED) {
+            // Every position on the way lies on the solution the session just found
+            Move move = search.getMove();
+            while (move.direction() != Move.MoveDirection.INVALID && board.move(move)) {
+                JsonArray coordinates = new JsonArray();
+                coordinates.add(move.xStart);
+                coordinates.add(move.yStart);
+                coordinates.add(move.xEnd);
+                coordinates.add(move.yEnd);
+                solution.add(coordinates);
+                move = solver.getNextBestMove(board);
+            }
+        }
+        result.addProperty("status", search.getStatus() == SearchResult.Status.SOLVED && !board.isInWinningState() ?
+                SearchResult.Status.UNKNOWN.name() : search.getStatus().name());
+        result.addProperty("moves", solution.size());
+        result.add("solution", solution);
+        result.addProperty("expandedNodes", search.getStatistics().getExpandedNodes());
+        result.addProperty("visitedNodes", search.getStatistics().getVisitedNodes());
+        result.addProperty("timeMillis", Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return result;
+    }
+}
@@ -0,0 +1,250 @@
+package util;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import model.Board;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class represents the difficulty of a level, worked out from the whole
+ * game tree reachable from its board. A single breadth-first search over the
+ * packed boards gives the length of a shortest solution, how many moves are
+ * open on average, how many positions there are, how many of them are dead
+ * ends and how many shortest solutions there are. These are then combined into
+ * a single score.
+ *
+ * @author Samuel Gamelin
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Difficulty {
+
+    /**
+     * The fewest moves needed to solve the level, -1 if it cannot be solved.
+     */
+    private final int optimalLength;
+
+    /**
+     * The average number of moves available in a reachable position which is not
+     * winning.
+     */
+    private final double branchingFactor;
+
+    /**
+     * The number of positions reachable from the board without going through a
+     * winning position, including the board itself and the winning positions
+     * reached.
+     */
+    private final int reachableStates;
+
+    /**
+     * The number of reachable positions, other than winning ones, which can only be
+     * left by undoing the move that led to them.
+     */
+    private final int deadEndStates;
+
+    /**
+     * The number of distinct shortest solutions, Long.MAX_VALUE if there are more.
+     */
+    private final long optimalSolutions;
+
+    /**
+     * The difficulty score of the level, higher meaning harder. Levels that cannot
+     * be solved score Integer.MAX_VALUE.
+     */
+    private final int score;
+
+    /**
+     * Analyses the difficulty of a board.
+     *
+     * @param board The board to analyse
+     * @return The difficulty of the board. Boards that cannot be packed are
+     * considered unsolvable, with no reachable positions.
+     */
+    public static Difficulty of(Board board) {
+        return of(board, SearchLimits.unlimited());
+    }
+
+    /**
+     * Analyses the difficulty of a board within the limits of a search, each
+     * position expanded counting towards the node budget.
+     *
+     * @param board  The board to analyse
+     * @param limits The limits of the analysis
+     * @return The difficulty of the board, or null if the analysis was stopped by
+     * its limits. Boards that cannot be packed are considered unsolvable, with no
+     * reachable positions.
+     */
+    public static Difficulty of(Board board, SearchLimits limits) {
+        long packed = PackedBoard.encode(board);
+        if (packed == PackedBoard.INVALID) {
+            return new Difficulty(-1, 0, 0, 0, 0, Integer.MAX_VALUE);
+        }
+        return of(packed, new SearchMonitor(limits));
+    }
+
+    /**
+     * Analyses the difficulty of a packed board.
+     *
+     * @param root The packed board to analyse
+     * @return The difficulty of the packed board
+     */
+    static Difficulty of(long root) {
+        return of(root, new SearchMonitor(SearchLimits.unlimited()));
+    }
+
+    /**
+     * Analyses the difficulty of a packed board within the limits of a search.
+     *
+     * @param root    The packed board to analyse
+     * @param monitor The monitor of the analysis, told of every position expanded
+     * @return The difficulty of the packed board, or null if the analysis was
+     * stopped
+     */
+    private static Difficulty of(long root, SearchMonitor monitor) {
+        // The queue holds every reachable position in the order they are found,
+        // alongside their depth and the number of shortest paths leading to them
+        long[] queue = {root};
+        int[] depths = {0};
+        long[] paths = {1};
+        Map<Long, Integer> indices = new HashMap<>();
+        indices.put(root, 0);
+        int size = 1;
+
+        long moves = 0;
+        int expanded = 0;
+        int deadEnds = 0;
+        int optimalLength = -1;
+        long optimalSolutions = 0;
+        long[] children = new long[PackedBoard.MAX_MOVES];
+        for (int head = 0; head < size; head++) {
+            long current = queue[head];
+            if (PackedBoard.isWinning(current)) {
+                if (optimalLength == -1) {
+                    optimalLength = depths[head];
+                }
+                if (depths[head] == optimalLength) {
+                    optimalSolutions = saturatedAdd(optimalSolutions, paths[head]);
+                }
+                // Solutions end at the first winning position they reach, so the
+                // positions only reachable through one are not counted
+                continue;
+            }
+            if (!monitor.expand()) {
+                return null;
+            }
+            int count = PackedBoard.getChildren(current, children);
+            moves += count;
+            expanded++;
+            if (count <= 1) {
+                deadEnds++;
+            }
+            for (int i = 0; i < count; i++) {
+                Integer index = indices.get(children[i]);
+                if (index == null) {
+                    if (size == queue.length) {
+                        queue = Arrays.copyOf(queue, 2 * size);
+                        depths = Arrays.copyOf(depths, 2 * size);
+                        paths = Arrays.copyOf(paths, 2 * size);
+                    }
+                    indices.put(children[i], size);
+                    queue[size] = children[i];
+                    depths[size] = depths[head] + 1;
+                    paths[size] = paths[head];
+                    size++;
+                } else if (depths[index] == depths[head] + 1) {
+                    paths[index] = saturatedAdd(paths[index], paths[head]);
+                }
+            }
+        }
+
+        double branchingFactor = expanded == 0 ? 0 : (double) moves / expanded;
+        return new Difficulty(optimalLength, branchingFactor, size, deadEnds, optimalSolutions,
+                score(optimalLength, branchingFactor, size, deadEnds, optimalSolutions));
+    }
+
+    /**
+     * Combines the measures of a level into a single score. The length of a
+     * shortest solution counts the most. Each doubling of the reachable positions
+     * adds to it, as do a larger share of dead ends and fewer shortest solutions,
+     * since both leave the player fewer ways forward.
+     *
+     * @param optimalLength    The fewest moves needed to solve the level
+     * @param branchingFactor  The average number of moves available in a position
+     * @param reachableStates  The number of reachable positions
+     * @param deadEndStates    The number of dead ends
+     * @param optimalSolutions The number of shortest solutions
+     * @return The difficulty score, Integer.MAX_VALUE if the level cannot be solved
+     */
+    private static int score(int optimalLength, double branchingFactor, int reachableStates, int deadEndStates,
+                             long optimalSolutions) {
+        if (optimalLength < 0) {
+            return Integer.MAX_VALUE;
+        }
+        double score = 2 * optimalLength + log2(reachableStates) + Math.max(0, log2(branchingFactor)) +
+                       10.0 * deadEndStates / reachableStates + Math.max(0, 5 - log2(optimalSolutions));
+        return (int) Math.round(score);
+    }
+
+    /**
+     * @return The band of difficulty this level falls in
+     */
+    public Rating getRating() {
+        return Rating.of(score);
+    }
+
+    /**
+     * @param value A positive value
+     * @return The base 2 logarithm of the value
+     */
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+
+    /**
+     * @param a A non-negative value
+     * @param b A non-negative value
+     * @return The sum of the values, or Long.MAX_VALUE if it overflows
+     */
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * An enumeration of the bands of difficulty levels are sorted into, from the
+     * easiest to the hardest.
+     */
+    public enum Rating {
+        EASY(0), MEDIUM(30), HARD(60), EXPERT(100), UNSOLVABLE(Integer.MAX_VALUE);
+
+        /**
+         * The lowest score in this band.
+         */
+        private final int minimumScore;
+
+        Rating(int minimumScore) {
+            this.minimumScore = minimumScore;
+        }
+
+        /**
+         * @param score A difficulty score
+         * @return The band the score falls in
+         */
+        static Rating of(int score) {
+            Rating rating = EASY;
+            for (Rating candidate : values()) {
+                if (score >= candidate.minimumScore) {
+                    rating = candidate;
+                }
+            }
+            return rating;
+        }
+    }
+}
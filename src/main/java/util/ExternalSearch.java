@@ -0,0 +1,591 @@
+package util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * This class performs a breadth-first search whose layers are kept on disk, for
+ * state spaces too large for the in-memory searches. Each layer is a file of
+ * sorted, distinct packed boards.
+ * <p>
+ * The children of a layer are gathered in a buffer bounded by the memory limit
+ * of the search (see SearchLimits), which is sorted and written out as a run
+ * whenever it fills up. Duplicates are only removed once the layer is done, by
+ * merging the runs and streaming them against the current and previous layers:
+ * every move can be undone by another move, so a child is either new or lies in
+ * one of these two layers. At most getMaxFanIn runs are merged at once, each
+ * with its own read buffer, so runs beyond that are first merged in groups into
+ * longer runs. No visited set or parent map is held in memory, and
+ * the path is rebuilt by walking the layers back from the winning board, reading
+ * each of them once.
+ * <p>
+ * The files of a search live in a temporary directory which is deleted when the
+ * search ends. Positions are not reduced under the symmetries of the level.
+ *
+ * @author Samuel Gamelin
+ */
+@Log4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ExternalSearch {
+
+    /**
+     * The initial number of children the buffer holds, grown up to the memory
+     * limit as needed.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The size in bytes of the buffers used to read and write the files.
+     */
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The fewest runs merged at once, however low the memory limit.
+     */
+    static final int MIN_FAN_IN = 2;
+
+    /**
+     * Performs an external breadth-first search on the specified packed board.
+     *
+     * @param root    The packed board from which to stem the search
+     * @param monitor The monitor of the search, which also gives its memory limit
+     * @return The list of packed boards that form the winning path. Should there be
+     * no winning path, this list will be empty. Should the search be stopped, this
+     * is the path to the best known position.
+     * @throws UncheckedIOException If the files of the search cannot be written or
+     *                              read
+     */
+    static List<Long> breadthFirstSearch(long root, SearchMonitor monitor) {
+        if (PackedBoard.isWinning(root)) {
+            return new LinkedList<>();
+        }
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("rabbits-and-foxes-search");
+            return breadthFirstSearch(root, monitor, directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to perform an external search", e);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Performs an external breadth-first search, keeping its files in the
+     * specified directory.
+     *
+     * @param root      The packed board from which to stem the search
+     * @param monitor   The monitor of the search
+     * @param directory The directory holding the files of the search
+     * @return The list of packed boards that form the winning path, as above
+     * @throws IOException If the files of the search cannot be written or read
+     */
+    private static List<Long> breadthFirstSearch(long root, SearchMonitor monitor, Path directory)
+            throws IOException {
+        List<Path> layers = new ArrayList<>();
+        Path first = directory.resolve("layer0");
+        try (DataOutputStream out = openOutput(first)) {
+            out.writeLong(root);
+        }
+        layers.add(first);
+        long layerSize = 1;
+        long visited = 1;
+        int bestDepth = 0;
+
+        int capacity = (int) Math.max(PackedBoard.MAX_MOVES,
+                Math.min(monitor.getMemoryLimit() / Long.BYTES, Integer.MAX_VALUE - 8));
+        long[] children = new long[PackedBoard.MAX_MOVES];
+        while (true) {
+            int depth = layers.size() - 1;
+            RunBuffer buffer = new RunBuffer(directory, "run" + (depth + 1) + "-", capacity,
+                    getMaxFanIn(monitor.getMemoryLimit()));
+            try (FileCursor layer = new FileCursor(layers.get(depth))) {
+                while (layer.hasNext()) {
+                    long current = layer.peek();
+                    layer.advance();
+                    boolean more = monitor.expand(current);
+                    if (monitor.getBestKnown() == current) {
+                        bestDepth = depth;
+                    }
+                    if (!more) {
+                        return pathTo(layers, bestDepth, monitor.getBestKnown());
+                    }
+                    monitor.observe((int) Math.min(layerSize, Integer.MAX_VALUE),
+                            (int) Math.min(visited, Integer.MAX_VALUE));
+                    int count = PackedBoard.getChildren(current, children);
+                    for (int i = 0; i < count; i++) {
+                        if (PackedBoard.isWinning(children[i])) {
+                            List<Long> path = pathTo(layers, depth, current);
+                            path.add(children[i]);
+                            return path;
+                        }
+                        buffer.add(children[i]);
+                    }
+                }
+            }
+
+            Path next = directory.resolve("layer" + (depth + 1));
+            try (Cursor candidates = buffer.merge();
+                 Cursor current = new FileCursor(layers.get(depth));
+                 Cursor previous = depth > 0 ? new FileCursor(layers.get(depth - 1)) : new ArrayCursor(new long[0], 0);
+                 DataOutputStream out = openOutput(next)) {
+                layerSize = subtract(candidates, current, previous, out);
+            } finally {
+                buffer.delete();
+            }
+            if (layerSize == 0) {
+                return new LinkedList<>();
+            }
+            layers.add(next);
+            visited += layerSize;
+        }
+    }
+
+    /**
+     * @param memoryLimit The number of bytes of positions the search may hold in
+     *                    memory
+     * @return The most runs merged at once, whose read buffers together fit in the
+     * memory limit
+     */
+    static int getMaxFanIn(long memoryLimit) {
+        return (int) Math.max(MIN_FAN_IN, Math.min(memoryLimit / IO_BUFFER_SIZE, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Writes every candidate found in neither of two layers, once each.
+     *
+     * @param candidates The sorted candidates, which may repeat
+     * @param current    The sorted layer being expanded
+     * @param previous   The sorted layer before it
+     * @param out        The stream to write the new layer to
+     * @return The number of packed boards written
+     * @throws IOException If a file cannot be written or read
+     */
+    private static long subtract(Cursor candidates, Cursor current, Cursor previous, DataOutputStream out)
+            throws IOException {
+        long size = 0;
+        boolean started = false;
+        long last = 0;
+        while (candidates.hasNext()) {
+            long candidate = candidates.peek();
+            candidates.advance();
+            if ((!started || candidate != last) && !contains(current, candidate) && !contains(previous, candidate)) {
+                out.writeLong(candidate);
+                size++;
+            }
+            started = true;
+            last = candidate;
+        }
+        return size;
+    }
+
+    /**
+     * Determines whether a sorted cursor holds a value, skipping past every smaller
+     * value. Values must be asked for in increasing order.
+     *
+     * @param cursor The cursor
+     * @param value  The value
+     * @return True if the next value of the cursor is the specified one, false
+     * otherwise
+     * @throws IOException If the cursor cannot be read
+     */
+    private static boolean contains(Cursor cursor, long value) throws IOException {
+        while (cursor.hasNext() && cursor.peek() < value) {
+            cursor.advance();
+        }
+        return cursor.hasNext() && cursor.peek() == value;
+    }
+
+    /**
+     * Rebuilds the path from the root to a packed board of a layer. Every move can
+     * be undone, so the packed board has a child in the layer before its own,
+     * which is its parent on a shortest path.
+     *
+     * @param layers The layers of the search, starting with the root
+     * @param depth  The layer of the packed board
+     * @param node   The packed board, or PackedBoard.INVALID for none
+     * @return The list of packed boards from the root to the node, empty if there
+     * is no node
+     * @throws IOException If a layer cannot be read
+     */
+    private static List<Long> pathTo(List<Path> layers, int depth, long node) throws IOException {
+        LinkedList<Long> path = new LinkedList<>();
+        if (node == PackedBoard.INVALID) {
+            return path;
+        }
+        path.add(node);
+        for (int i = depth - 1; i >= 0; i--) {
+            long[] neighbours = PackedBoard.getChildren(node);
+            Arrays.sort(neighbours);
+            try (FileCursor layer = new FileCursor(layers.get(i))) {
+                while (layer.hasNext() && Arrays.binarySearch(neighbours, layer.peek()) < 0) {
+                    layer.advance();
+                }
+                node = layer.peek();
+            }
+            path.addFirst(node);
+        }
+        return path;
+    }
+
+    /**
+     * @param path The path of the file to write
+     * @return A buffered stream writing the file
+     * @throws IOException If the file cannot be created
+     */
+    private static DataOutputStream openOutput(Path path) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), IO_BUFFER_SIZE));
+    }
+
+    /**
+     * Deletes a directory and the files it holds, logging any failure.
+     *
+     * @param directory The directory to delete, or null for none
+     */
+    private static void delete(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            log.warn("Unable to delete the external search files in " + directory, e);
+        }
+    }
+
+    /**
+     * A sorted sequence of packed boards, read one at a time.
+     */
+    private interface Cursor extends Closeable {
+
+        /**
+         * @return True if there is a current value, false once the cursor is
+         * exhausted
+         */
+        boolean hasNext();
+
+        /**
+         * @return The current value, without moving past it
+         */
+        long peek();
+
+        /**
+         * Moves past the current value.
+         *
+         * @throws IOException If the next value cannot be read
+         */
+        void advance() throws IOException;
+    }
+
+    /**
+     * A cursor over part of an array.
+     */
+    private static final class ArrayCursor implements Cursor {
+
+        private final long[] values;
+
+        private final int size;
+
+        private int index;
+
+        ArrayCursor(long[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public long peek() {
+            return values[index];
+        }
+
+        @Override
+        public void advance() {
+            index++;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * A cursor over a file of packed boards.
+     */
+    private static final class FileCursor implements Cursor {
+
+        private final DataInputStream in;
+
+        /**
+         * The number of values left in the file, including the current one.
+         */
+        private long remaining;
+
+        private long current;
+
+        FileCursor(Path path) throws IOException {
+            this.remaining = Files.size(path) / Long.BYTES;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), IO_BUFFER_SIZE));
+            if (remaining > 0) {
+                current = in.readLong();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public long peek() {
+            return current;
+        }
+
+        @Override
+        public void advance() throws IOException {
+            if (--remaining > 0) {
+                current = in.readLong();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * A cursor merging several sorted cursors into one.
+     */
+    private static final class MergeCursor implements Cursor {
+
+        private final List<Cursor> cursors;
+
+        /**
+         * The cursors that are not exhausted, smallest current value first.
+         */
+        private final PriorityQueue<Cursor> queue = new PriorityQueue<>(Comparator.comparingLong(Cursor::peek));
+
+        MergeCursor(List<Cursor> cursors) {
+            this.cursors = cursors;
+            for (Cursor cursor : cursors) {
+                if (cursor.hasNext()) {
+                    queue.add(cursor);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public long peek() {
+            return queue.element().peek();
+        }
+
+        @Override
+        public void advance() throws IOException {
+            Cursor cursor = queue.remove();
+            cursor.advance();
+            if (cursor.hasNext()) {
+                queue.add(cursor);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (Cursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * A buffer of children bounded by the memory limit, spilling sorted runs to
+     * disk whenever it fills up.
+     */
+    private static final class RunBuffer {
+
+        private final Path directory;
+
+        private final String prefix;
+
+        private final int capacity;
+
+        /**
+         * The most runs merged at once.
+         */
+        private final int maxFanIn;
+
+        private final List<Path> runs = new ArrayList<>();
+
+        /**
+         * The number of runs written so far, including merged ones, used to name
+         * the next run.
+         */
+        private int runCount;
+
+        private long[] values;
+
+        private int size;
+
+        RunBuffer(Path directory, String prefix, int capacity, int maxFanIn) {
+            this.directory = directory;
+            this.prefix = prefix;
+            this.capacity = capacity;
+            this.maxFanIn = maxFanIn;
+            this.values = new long[Math.min(INITIAL_CAPACITY, capacity)];
+        }
+
+        /**
+         * Adds a child to this buffer.
+         *
+         * @param packed The packed board to add
+         * @throws IOException If a run cannot be written
+         */
+        void add(long packed) throws IOException {
+            if (size == values.length) {
+                if (values.length < capacity) {
+                    values = Arrays.copyOf(values, (int) Math.min(capacity, 2L * values.length));
+                } else {
+                    spill();
+                }
+            }
+            values[size++] = packed;
+        }
+
+        /**
+         * @return A cursor over every child added to this buffer, in order and
+         * possibly repeated
+         * @throws IOException If a run cannot be written or read
+         */
+        Cursor merge() throws IOException {
+            if (runs.isEmpty()) {
+                Arrays.sort(values, 0, size);
+                return new ArrayCursor(values, size);
+            }
+            if (size > 0) {
+                spill();
+            }
+            values = null;
+            // Merge the runs in groups until few enough are left to merge at once
+            while (runs.size() > maxFanIn) {
+                List<Path> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += maxFanIn) {
+                    List<Path> group = runs.subList(i, Math.min(i + maxFanIn, runs.size()));
+                    merged.add(group.size() == 1 ? group.get(0) : mergeRuns(group));
+                }
+                runs.clear();
+                runs.addAll(merged);
+            }
+            return open(runs);
+        }
+
+        /**
+         * Merges runs into a new run, without repeats, and deletes them.
+         *
+         * @param group The runs to merge
+         * @return The new run
+         * @throws IOException If a run cannot be written, read or deleted
+         */
+        private Path mergeRuns(List<Path> group) throws IOException {
+            Path run = directory.resolve(prefix + runCount++);
+            try (Cursor cursor = open(group);
+                 DataOutputStream out = openOutput(run)) {
+                boolean started = false;
+                long last = 0;
+                while (cursor.hasNext()) {
+                    long value = cursor.peek();
+                    cursor.advance();
+                    if (!started || value != last) {
+                        out.writeLong(value);
+                    }
+                    started = true;
+                    last = value;
+                }
+            }
+            for (Path merged : group) {
+                Files.delete(merged);
+            }
+            return run;
+        }
+
+        /**
+         * @param paths Runs
+         * @return A cursor merging the runs
+         * @throws IOException If a run cannot be opened
+         */
+        private static Cursor open(List<Path> paths) throws IOException {
+            List<Cursor> cursors = new ArrayList<>(paths.size());
+            try {
+                for (Path run : paths) {
+                    cursors.add(new FileCursor(run));
+                }
+            } catch (IOException e) {
+                for (Cursor cursor : cursors) {
+                    cursor.close();
+                }
+                throw e;
+            }
+            return new MergeCursor(cursors);
+        }
+
+        /**
+         * Deletes the runs written by this buffer.
+         *
+         * @throws IOException If a run cannot be deleted
+         */
+        void delete() throws IOException {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+
+        /**
+         * Writes the children in this buffer to a new run, sorted and without
+         * repeats, and empties the buffer.
+         *
+         * @throws IOException If the run cannot be written
+         */
+        private void spill() throws IOException {
+            Arrays.sort(values, 0, size);
+            Path run = directory.resolve(prefix + runCount++);
+            try (DataOutputStream out = openOutput(run)) {
+                for (int i = 0; i < size; i++) {
+                    if (i == 0 || values[i] != values[i - 1]) {
+                        out.writeLong(values[i]);
+                    }
+                }
+            }
+            runs.add(run);
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * This class estimates how many moves remain before a packed board is solved.
+ * Each rabbit is considered on its own, on an otherwise empty board where it
+ * may jump any distance of at least two cells along its row or column. The
+ * fewest such jumps needed to reach a brown tile is a lower bound for that
+ * rabbit, and since a move only ever moves one rabbit, the sum of these bounds
+ * never overestimates the true distance to a winning state.
+ *
+ * @author Samuel Gamelin
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class Heuristic {
+
+    /**
+     * For every cell, the fewest jumps a lone rabbit needs to reach a brown tile.
+     * Cells from which no brown tile can be reached hold Integer.MAX_VALUE.
+     */
+    private static final int[] HOLE_DISTANCE = computeHoleDistances();
+
+    /**
+     * Estimates the number of moves needed to solve the packed board. The estimate
+     * is admissible and consistent, so searches guided by it remain optimal.
+     *
+     * @param packed The packed board
+     * @return A lower bound on the number of moves needed to reach a winning
+     * state, or Integer.MAX_VALUE if a rabbit can never reach a brown tile
+     */
+    static int estimate(long packed) {
+        int estimate = 0;
+        long rabbits = PackedBoard.getRabbits(packed);
+        while (rabbits != 0) {
+            int distance = HOLE_DISTANCE[Long.numberOfTrailingZeros(rabbits)];
+            if (distance == Integer.MAX_VALUE) {
+                return Integer.MAX_VALUE;
+            }
+            estimate += distance;
+            rabbits &= rabbits - 1;
+        }
+        return estimate;
+    }
+
+    /**
+     * @return A table of the fewest jumps needed to reach a brown tile from every
+     * cell, found by searching outwards from the brown tiles
+     */
+    private static int[] computeHoleDistances() {
+        int[] distances = new int[PackedBoard.CELLS];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        long visited = 0;
+        long frontier = PackedBoard.BROWN_MASK;
+        for (int distance = 0; frontier != 0; distance++) {
+            visited |= frontier;
+            long next = 0;
+            for (long cells = frontier; cells != 0; cells &= cells - 1) {
+                int cell = Long.numberOfTrailingZeros(cells);
+                distances[cell] = distance;
+                for (int direction = 0; direction < MoveTables.DIRECTIONS; direction++) {
+                    next |= MoveTables.RAYS[cell][direction] & ~MoveTables.NEIGHBOURS[cell][direction];
+                }
+            }
+            frontier = next & ~visited;
+        }
+        return distances;
+    }
+}
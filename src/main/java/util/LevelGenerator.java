@@ -0,0 +1,239 @@
+package util;
+
+import model.Board;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * This class generates new solvable levels holding a given set of pieces and
+ * of a given difficulty. Each candidate level starts out as a random winning
+ * position: mushrooms are scattered over the green tiles, foxes are laid
+ * wherever they fit and the rabbits are put in the holes. Walking backwards
+ * from the winning positions reachable from it (see Tablebase) gives the
+ * distance to a win of every position that can reach it, and the level is the
+ * farthest of these positions whose Difficulty still has the requested rating.
+ * <p>
+ * Candidates are evaluated in parallel, in batches, each with a random
+ * generator seeded from its index, so that a seed always gives the same levels.
+ *
+ * @author Samuel Gamelin
+ */
+public final class LevelGenerator {
+
+    /**
+     * The number of candidates evaluated at once.
+     */
+    private static final int BATCH_SIZE = 64;
+
+    /**
+     * The difference between the seeds of two consecutive candidates.
+     */
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The number of places tried for a fox before giving up on a candidate.
+     */
+    private static final int FOX_ATTEMPTS = 100;
+
+    /**
+     * The number of tiles that are not holes.
+     */
+    private static final int GREEN_TILES = PackedBoard.CELLS - Long.bitCount(PackedBoard.BROWN_MASK);
+
+    private final int rabbits, foxes, mushrooms;
+
+    private final Difficulty.Rating rating;
+
+    /**
+     * Constructs a level generator.
+     *
+     * @param rabbits   The number of rabbits in each level, between 1 and 3
+     * @param foxes     The number of foxes in each level, between 0 and 2
+     * @param mushrooms The number of mushrooms in each level
+     * @param rating    The rating of the levels
+     * @throws IllegalArgumentException If the pieces do not fit on a board or the
+     *                                  rating is UNSOLVABLE
+     */
+    public LevelGenerator(int rabbits, int foxes, int mushrooms, Difficulty.Rating rating) {
+        if (rabbits < 1 || rabbits > 3) {
+            throw new IllegalArgumentException("A level must have between 1 and 3 rabbits");
+        }
+        if (foxes < 0 || foxes > PackedBoard.MAX_FOXES) {
+            throw new IllegalArgumentException("A level must have between 0 and " + PackedBoard.MAX_FOXES + " foxes");
+        }
+        if (mushrooms < 0 || mushrooms + 2 * foxes > GREEN_TILES) {
+            throw new IllegalArgumentException("The mushrooms and foxes do not fit on the green tiles");
+        }
+        if (Objects.requireNonNull(rating) == Difficulty.Rating.UNSOLVABLE) {
+            throw new IllegalArgumentException("Unsolvable levels cannot be generated");
+        }
+        this.rabbits = rabbits;
+        this.foxes = foxes;
+        this.mushrooms = mushrooms;
+        this.rating = rating;
+    }
+
+    /**
+     * Generates distinct levels, stopping early should too many candidates fail.
+     *
+     * @param count         The number of levels to generate
+     * @param seed          The seed of the random generators
+     * @param maxCandidates The number of candidates to evaluate at most
+     * @return The levels generated, named "Generated 1", "Generated 2" and so on.
+     * There may be fewer than requested.
+     */
+    public List<Board> generate(int count, long seed, int maxCandidates) {
+        Set<Long> starts = new LinkedHashSet<>();
+        for (int next = 0; next < maxCandidates && starts.size() < count; next += BATCH_SIZE) {
+            long[] candidates = IntStream.range(next, Math.min(next + BATCH_SIZE, maxCandidates)).parallel()
+                                         .mapToLong(i -> candidate(new SplittableRandom(seed + i * SEED_STEP)))
+                                         .toArray();
+            for (long candidate : candidates) {
+                if (candidate != PackedBoard.INVALID && starts.size() < count) {
+                    starts.add(candidate);
+                }
+            }
+        }
+        List<Board> levels = new ArrayList<>(starts.size());
+        for (long start : starts) {
+            levels.add(PackedBoard.decode(start, "Generated " + (levels.size() + 1)));
+        }
+        return levels;
+    }
+
+    /**
+     * Evaluates a single candidate.
+     *
+     * @param random The random generator of the candidate
+     * @return The packed board of the level found, or PackedBoard.INVALID if the
+     * candidate has no position with the requested rating
+     */
+    private long candidate(SplittableRandom random) {
+        long winning = randomWinningBoard(random);
+        if (winning == PackedBoard.INVALID) {
+            return PackedBoard.INVALID;
+        }
+        Tablebase table = Tablebase.buildReachable(winning);
+
+        // Positions farther from a win are harder, so look for the farthest one
+        // with the rating, trying one position per distance
+        long level = PackedBoard.INVALID;
+        int low = 1;
+        int high = table.getMaxDistance();
+        while (low <= high) {
+            int distance = (low + high) >>> 1;
+            long[] positions = table.getPackedBoardsAt(distance);
+            long position = positions[random.nextInt(positions.length)];
+            Difficulty.Rating positionRating = Difficulty.of(position).getRating();
+            if (positionRating.compareTo(rating) <= 0) {
+                if (positionRating == rating) {
+                    level = position;
+                }
+                low = distance + 1;
+            } else {
+                high = distance - 1;
+            }
+        }
+        return level;
+    }
+
+    /**
+     * Lays out the pieces of this generator at random, with every rabbit in a
+     * hole.
+     *
+     * @param random The random generator to use
+     * @return The winning packed board, or PackedBoard.INVALID if a fox could not
+     * be placed or the foxes left too few holes for the rabbits
+     */
+    private long randomWinningBoard(SplittableRandom random) {
+        long occupied = 0;
+        long packed = 0;
+        for (int i = 0; i < mushrooms; i++) {
+            int cell;
+            do {
+                cell = random.nextInt(PackedBoard.CELLS);
+            } while (((occupied | PackedBoard.BROWN_MASK) >>> cell & 1) != 0);
+            occupied |= 1L << cell;
+        }
+        packed |= occupied << PackedBoard.CELLS;
+
+        for (int slot = 0; slot < foxes; slot++) {
+            long cells;
+            int fox;
+            int attempts = 0;
+            do {
+                if (attempts++ == FOX_ATTEMPTS) {
+                    return PackedBoard.INVALID;
+                }
+                int cell = random.nextInt(PackedBoard.CELLS);
+                boolean vertical = random.nextBoolean();
+                int other = cell + (vertical ? 1 : Board.SIZE);
+                boolean fits = vertical ? other % Board.SIZE != 0 : other < PackedBoard.CELLS;
+                cells = fits ? 1L << cell | 1L << other : 0;
+                fox = 1 + 4 * cell + (vertical ? 2 : 0) + (random.nextBoolean() ? 1 : 0);
+            } while (cells == 0 || (cells & occupied) != 0);
+            occupied |= cells;
+            packed |= (long) fox << PackedBoard.FOX_SHIFT + PackedBoard.FOX_BITS * slot;
+        }
+
+        long freeHoles = PackedBoard.BROWN_MASK & ~occupied;
+        if (Long.bitCount(freeHoles) < rabbits) {
+            return PackedBoard.INVALID;
+        }
+        for (int i = 0; i < rabbits; i++) {
+            int cell;
+            do {
+                cell = random.nextInt(PackedBoard.CELLS);
+            } while ((freeHoles >>> cell & 1) == 0);
+            freeHoles &= ~(1L << cell);
+            packed |= 1L << cell;
+        }
+        return packed;
+    }
+
+    /**
+     * Generates levels from the command line, printing each one in the format of
+     * Board.toString on a line of its own.
+     *
+     * @param args The number of levels and their rating, optionally followed by
+     *             the number of rabbits, foxes and mushrooms, the seed and the
+     *             number of candidates to evaluate at most
+     */
+    public static void main(String[] args) {
+        int count = 0;
+        Difficulty.Rating rating = null;
+        int rabbits = 2, foxes = 1, mushrooms = 2;
+        long seed = System.currentTimeMillis();
+        int maxCandidates = -1;
+        LevelGenerator generator = null;
+        try {
+            count = Integer.parseInt(args[0]);
+            rating = Difficulty.Rating.valueOf(args[1]);
+            for (int i = 2; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--rabbits" -> rabbits = Integer.parseInt(args[++i]);
+                    case "--foxes" -> foxes = Integer.parseInt(args[++i]);
+                    case "--mushrooms" -> mushrooms = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--candidates" -> maxCandidates = Integer.parseInt(args[++i]);
+                    default -> throw new IllegalArgumentException("Unexpected argument " + args[i]);
+                }
+            }
+            generator = new LevelGenerator(rabbits, foxes, mushrooms, rating);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Usage: LevelGenerator <count> <EASY|MEDIUM|HARD|EXPERT> [--rabbits <count>] " +
+                               "[--foxes <count>] [--mushrooms <count>] [--seed <seed>] [--candidates <count>]");
+            System.exit(1);
+        }
+
+        List<Board> levels = generator.generate(count, seed, maxCandidates > 0 ? maxCandidates : 1000 * count);
+        levels.forEach(System.out::println);
+        System.err.println("Generated " + levels.size() + " of " + count + " " + rating + " levels with seed " + seed);
+    }
+}
@@ -0,0 +1,306 @@
+package util;
+
+import com.google.gson.JsonObject;
+import model.Board;
+import model.Piece;
+import model.Rabbit;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class reads level packs, a compact binary format for distributing large
+ * numbers of levels. A level takes 9 bytes: its packed board (see PackedBoard)
+ * followed by one byte holding the colour of each of its rabbits, two bits per
+ * rabbit in the order of their cells. Level packs whose levels are simply
+ * numbered from 1 leave out the names; otherwise a table of name offsets and
+ * the names themselves, in UTF-8, follow the levels.
+ * <p>
+ * A level pack is memory-mapped rather than read, and each level is only
+ * decoded when it is asked for, so that opening a pack costs the same however
+ * many levels it holds.
+ *
+ * @author Samuel Gamelin
+ */
+public final class LevelPack {
+
+    /**
+     * The first four bytes of every level pack, "RFLP".
+     */
+    private static final int MAGIC = 0x52464C50;
+
+    private static final byte VERSION = 1;
+
+    /**
+     * The flag set when the pack holds the names of its levels.
+     */
+    private static final byte HAS_NAMES = 1;
+
+    /**
+     * The size of the header: the magic number, the version, the flags, two
+     * reserved bytes and the number of levels.
+     */
+    private static final int HEADER_SIZE = 12;
+
+    /**
+     * The size of each level.
+     */
+    static final int LEVEL_SIZE = Long.BYTES + 1;
+
+    /**
+     * The largest number of rabbits whose colours fit in a level.
+     */
+    static final int MAX_RABBITS = 4;
+
+    /**
+     * The mapped contents of the level pack.
+     */
+    private final ByteBuffer buffer;
+
+    private final int size;
+
+    /**
+     * The position of the name offsets within the pack, or -1 if the pack holds no
+     * names.
+     */
+    private final int namesPosition;
+
+    /**
+     * Reads the header of a level pack and checks that it holds every level it
+     * claims to, and that the offsets of the names, if any, are in order and
+     * within the pack.
+     *
+     * @param buffer The contents of the level pack
+     * @throws IOException If the contents are not those of a level pack
+     */
+    LevelPack(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a level pack");
+        }
+        if (buffer.get(4) != VERSION) {
+            throw new IOException("Unsupported level pack version " + buffer.get(4));
+        }
+        size = buffer.getInt(8);
+        long levelsEnd = HEADER_SIZE + (long) size * LEVEL_SIZE;
+        if (size < 0 || levelsEnd > buffer.limit()) {
+            throw new IOException("Invalid level pack size " + size);
+        }
+        if ((buffer.get(5) & HAS_NAMES) == 0) {
+            namesPosition = -1;
+        } else {
+            namesPosition = (int) levelsEnd;
+            long namesEnd = levelsEnd + (size + 1L) * Integer.BYTES;
+            if (namesEnd > buffer.limit()) {
+                throw new IOException("Truncated level pack names");
+            }
+            // Check every offset once, so that getName never reads outside the names
+            long namesLength = buffer.limit() - namesEnd;
+            int previous = 0;
+            for (int i = 0; i <= size; i++) {
+                int offset = buffer.getInt(namesPosition + i * Integer.BYTES);
+                if (offset < previous || offset > namesLength) {
+                    throw new IOException("Invalid offset " + offset + " of level pack name " + i);
+                }
+                previous = offset;
+            }
+        }
+    }
+
+    /**
+     * Memory-maps a level pack.
+     *
+     * @param path The path of the level pack
+     * @return The level pack
+     * @throws IOException If the file cannot be mapped or is not a level pack
+     */
+    public static LevelPack open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Level pack too large to map: " + path);
+            }
+            return new LevelPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @return The number of levels in this pack
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index The index of a level, from 0
+     * @return The packed board of the level
+     */
+    public long getPackedBoard(int index) {
+        return buffer.getLong(levelPosition(index));
+    }
+
+    /**
+     * @param index The index of a level, from 0
+     * @return The name of the level
+     */
+    public String getName(int index) {
+        levelPosition(index);
+        if (namesPosition == -1) {
+            return String.valueOf(index + 1);
+        }
+        int namesStart = namesPosition + (size + 1) * Integer.BYTES;
+        int start = buffer.getInt(namesPosition + index * Integer.BYTES);
+        int end = buffer.getInt(namesPosition + (index + 1) * Integer.BYTES);
+        byte[] name = new byte[end - start];
+        buffer.duplicate().position(namesStart + start).get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes a level.
+     *
+     * @param index The index of a level, from 0
+     * @return A new board holding the level
+     */
+    public Board getBoard(int index) {
+        int position = levelPosition(index);
+        long packed = buffer.getLong(position);
+        int colours = buffer.get(position + Long.BYTES) & 0xFF;
+        Rabbit.RabbitColour[] values = Rabbit.RabbitColour.values();
+        Rabbit.RabbitColour[] rabbitColours = new Rabbit.RabbitColour[MAX_RABBITS];
+        for (int i = 0; i < MAX_RABBITS; i++) {
+            rabbitColours[i] = values[(colours >>> 2 * i & 3) % values.length];
+        }
+        return PackedBoard.decode(packed, rabbitColours, getName(index));
+    }
+
+    /**
+     * @param index The index of a level, from 0
+     * @return The position of the level within the pack
+     * @throws IndexOutOfBoundsException If there is no such level
+     */
+    private int levelPosition(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Level " + index + " is not in a pack of " + size);
+        }
+        return HEADER_SIZE + index * LEVEL_SIZE;
+    }
+
+    /**
+     * Writes levels as a level pack. The names are only written if some level is
+     * not named after its position, counting from 1.
+     *
+     * @param boards       The levels
+     * @param outputStream The stream to write to
+     * @throws IllegalArgumentException If a board cannot be packed or has more than
+     *                                  MAX_RABBITS rabbits
+     * @throws IOException              If the pack cannot be written
+     */
+    public static void write(List<Board> boards, OutputStream outputStream) throws IOException {
+        boolean hasNames = false;
+        for (int i = 0; i < boards.size(); i++) {
+            hasNames |= !boards.get(i).getName().equals(String.valueOf(i + 1));
+        }
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(hasNames ? HAS_NAMES : 0);
+        out.writeShort(0);
+        out.writeInt(boards.size());
+        for (Board board : boards) {
+            long packed = PackedBoard.encode(board);
+            if (packed == PackedBoard.INVALID) {
+                throw new IllegalArgumentException("Level " + board.getName() + " cannot be packed");
+            }
+            out.writeLong(packed);
+            out.writeByte(encodeColours(board));
+        }
+        if (hasNames) {
+            ByteArrayOutputStream names = new ByteArrayOutputStream();
+            out.writeInt(0);
+            for (Board board : boards) {
+                names.write(board.getName().getBytes(StandardCharsets.UTF_8));
+                out.writeInt(names.size());
+            }
+            names.writeTo(out);
+        }
+        out.flush();
+    }
+
+    /**
+     * @param board A board
+     * @return The colours of the board's rabbits, two bits per rabbit in the order
+     * of their cells
+     * @throws IllegalArgumentException If the board has more than MAX_RABBITS
+     *                                  rabbits
+     */
+    private static int encodeColours(Board board) {
+        int colours = 0;
+        int rabbits = 0;
+        for (int x = 0; x < Board.SIZE; x++) {
+            for (int y = 0; y < Board.SIZE; y++) {
+                Piece piece = board.getPiece(x, y);
+                if (piece instanceof Rabbit) {
+                    if (rabbits == MAX_RABBITS) {
+                        throw new IllegalArgumentException("Level " + board.getName() + " has more than " +
+                                                           MAX_RABBITS + " rabbits");
+                    }
+                    colours |= ((Rabbit) piece).getColour().ordinal() << 2 * rabbits++;
+                }
+            }
+        }
+        return colours;
+    }
+
+    /**
+     * Exports the levels of a level file, in the format of LevelData.json or
+     * CustomLevelData.json, to a level pack. Levels that cannot be read or packed
+     * are left out.
+     *
+     * @param args The path of the level file and the path of the level pack
+     * @throws IOException If the level file cannot be read or the pack cannot be
+     *                     written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: LevelPack <level file> <level pack>");
+            System.exit(1);
+        }
+        List<JsonObject> levels;
+        try (Reader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            levels = BatchSolver.readLevels(reader);
+        }
+        List<Board> boards = new ArrayList<>(levels.size());
+        for (JsonObject level : levels) {
+            String name = level.get("name").getAsString();
+            Board board;
+            try {
+                board = Board.createBoard(name, level.get("board").getAsString());
+            } catch (RuntimeException e) {
+                board = null;
+            }
+            if (board == null || PackedBoard.encode(board) == PackedBoard.INVALID ||
+                Long.bitCount(PackedBoard.getRabbits(PackedBoard.encode(board))) > MAX_RABBITS) {
+                System.err.println("Skipping level " + name + ", which cannot be packed");
+            } else {
+                boards.add(board);
+            }
+        }
+        try (OutputStream out = Files.newOutputStream(Paths.get(args[1]))) {
+            write(boards, out);
+        }
+        System.err.println("Exported " + boards.size() + " of " + levels.size() + " levels");
+    }
+}
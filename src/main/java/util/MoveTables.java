@@ -0,0 +1,123 @@
+package util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import model.Board;
+
+/**
+ * This class holds the per-cell tables used to generate moves for packed boards.
+ * Every table is computed once, so that finding where a rabbit lands or how far
+ * a fox can slide only takes a few mask operations on the occupancy of a board.
+ *
+ * @author Samuel Gamelin
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class MoveTables {
+
+    /**
+     * The direction of increasing x, moving five cells at a time.
+     */
+    static final int X_INCREASING = 0;
+
+    /**
+     * The direction of decreasing x, moving five cells at a time.
+     */
+    static final int X_DECREASING = 1;
+
+    /**
+     * The direction of increasing y, moving one cell at a time.
+     */
+    static final int Y_INCREASING = 2;
+
+    /**
+     * The direction of decreasing y, moving one cell at a time.
+     */
+    static final int Y_DECREASING = 3;
+
+    /**
+     * The number of directions.
+     */
+    static final int DIRECTIONS = 4;
+
+    /**
+     * For every cell and direction, a mask of all cells lying beyond that cell in
+     * that direction, up to the edge of the board.
+     */
+    static final long[][] RAYS = new long[PackedBoard.CELLS][DIRECTIONS];
+
+    /**
+     * For every cell and direction, a mask of the neighbouring cell in that
+     * direction, 0 if the cell lies on the edge of the board.
+     */
+    static final long[][] NEIGHBOURS = new long[PackedBoard.CELLS][DIRECTIONS];
+
+    static {
+        int[][] offsets = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        for (int x = 0; x < Board.SIZE; x++) {
+            for (int y = 0; y < Board.SIZE; y++) {
+                int cell = PackedBoard.cell(x, y);
+                for (int direction = 0; direction < DIRECTIONS; direction++) {
+                    int dx = offsets[direction][0];
+                    int dy = offsets[direction][1];
+                    for (int i = 1; x + i * dx >= 0 && y + i * dy >= 0 && x + i * dx < Board.SIZE &&
+                                    y + i * dy < Board.SIZE; i++) {
+                        long bit = 1L << PackedBoard.cell(x + i * dx, y + i * dy);
+                        RAYS[cell][direction] |= bit;
+                        if (i == 1) {
+                            NEIGHBOURS[cell][direction] = bit;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the cell in a mask that lies closest to the origin of a ray heading
+     * in the specified direction.
+     *
+     * @param mask      A non-empty mask of cells along a ray
+     * @param direction The direction of the ray
+     * @return The index of the closest cell
+     */
+    static int closest(long mask, int direction) {
+        return direction == X_INCREASING || direction == Y_INCREASING ? Long.numberOfTrailingZeros(mask) :
+                63 - Long.numberOfLeadingZeros(mask);
+    }
+
+    /**
+     * Determines where a rabbit lands when jumping in the specified direction. A
+     * rabbit must jump over its occupied neighbour and lands on the first empty
+     * cell after it.
+     *
+     * @param occupied  The mask of occupied cells
+     * @param cell      The cell holding the rabbit
+     * @param direction The direction of the jump
+     * @return The landing cell, or -1 if the rabbit cannot jump in that direction
+     */
+    static int jump(long occupied, int cell, int direction) {
+        long free = RAYS[cell][direction] & ~occupied;
+        if ((occupied & NEIGHBOURS[cell][direction]) == 0 || free == 0) {
+            return -1;
+        }
+        return closest(free, direction);
+    }
+
+    /**
+     * Determines how many cells a piece can slide in the specified direction
+     * before reaching another piece or the edge of the board.
+     *
+     * @param occupied  The mask of occupied cells
+     * @param cell      The cell at the front of the sliding piece
+     * @param direction The direction of the slide
+     * @return The number of empty cells the piece can slide across
+     */
+    static int slide(long occupied, int cell, int direction) {
+        long ray = RAYS[cell][direction];
+        long blocked = ray & occupied;
+        if (blocked == 0) {
+            return Long.bitCount(ray);
+        }
+        return Long.bitCount(ray & ~RAYS[closest(blocked, direction)][direction]) - 1;
+    }
+}
@@ -9,7 +9,9 @@ import java.util.HashSet;
 import java.util.Set;
 
 /**
- * This class represents a node in the game tree of Rabbits and Foxes.
+ * This class represents a node in the game tree of Rabbits and Foxes. A node is
+ * an immutable position, held as a single packed board (see PackedBoard), so
+ * that exploring the game tree never copies a Board or its tiles.
  *
  * @author Samuel Gamelin
  * @author Mohamed Radwan
@@ -17,15 +19,35 @@ import java.util.Set;
 @Getter
 @EqualsAndHashCode
 @ToString
-public class Node {
+public final class Node {
 
     /**
-     * The board associated with this node.
+     * The packed board associated with this node.
      */
-    private final Board board;
+    private final long packed;
 
+    /**
+     * Constructs a node holding the position of the specified board.
+     *
+     * @param board The board whose position is held
+     * @throws IllegalArgumentException If the board is null or holds pieces that
+     *                                  cannot be packed
+     */
     public Node(Board board) {
-        this.board = new Board(board);
+        this(PackedBoard.encode(board));
+    }
+
+    /**
+     * Constructs a node holding the specified packed board.
+     *
+     * @param packed The packed board
+     * @throws IllegalArgumentException If the packed board is PackedBoard.INVALID
+     */
+    public Node(long packed) {
+        if (packed == PackedBoard.INVALID) {
+            throw new IllegalArgumentException("The board cannot be packed");
+        }
+        this.packed = packed;
     }
 
     /**
@@ -35,14 +57,24 @@ public class Node {
      */
     public Set<Node> getChildren() {
         Set<Node> children = new HashSet<>();
-        for (Move move : board.getPossibleMoves()) {
-            Board newBoard = new Board(board);
-            newBoard.move(move);
-            children.add(new Node(newBoard));
+        for (long child : PackedBoard.getChildren(packed)) {
+            children.add(new Node(child));
         }
         return children;
     }
 
+    /**
+     * Applies a move to this node, leaving this node unchanged.
+     *
+     * @param move The move to apply
+     * @return The node reached by making the move, or null if the move cannot be
+     * made from this node
+     */
+    public Node move(Move move) {
+        long child = PackedBoard.applyMove(packed, move);
+        return child == PackedBoard.INVALID ? null : new Node(child);
+    }
+
     /**
      * Determines the move object required to go from this node to a specified node.
      *
@@ -51,19 +83,16 @@ public class Node {
      * no such move, a move object with an invalid direction is returned.
      */
     public Move getMoveTo(Node node) {
-        for (Move move : board.getPossibleMoves()) {
-            Board newBoard = new Board(board);
-            if (newBoard.move(move) && node.equals(new Node(newBoard))) {
-                return move;
-            }
-        }
-        return new Move(-1, -1, -1, -1);
+        // The move is read from the difference between the two packed boards, then
+        // checked by applying it once
+        Move move = PackedBoard.getMove(packed, node.packed);
+        return PackedBoard.applyMove(packed, move) == node.packed ? move : new Move(-1, -1, -1, -1);
     }
 
     /**
      * @return True if this node's board is in a winning state. False otherwise.
      */
     public boolean isWinningNode() {
-        return board.isInWinningState();
+        return PackedBoard.isWinning(packed);
     }
 }
@@ -0,0 +1,567 @@
+package util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import model.Board;
+import model.Fox;
+import model.Mushroom;
+import model.Piece;
+import model.Rabbit;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * This class provides a compact encoding of a board position as a single long,
+ * which the Solver uses in place of full Board objects. Since mushrooms never
+ * move and rabbits behave identically regardless of their colour, a position is
+ * fully described by the cells holding rabbits and mushrooms along with the
+ * location of each fox.
+ * <p>
+ * A cell is indexed as {@code Board.SIZE * x + y}. Bits 0-24 of a packed board
+ * hold the rabbit mask, bits 25-49 hold the mushroom mask, and bits 50-56 and
+ * 57-63 each hold one fox. A fox is stored as {@code 1 + 4 * cell + 2 * vertical
+ * + headHigh}, where cell is the lower of its two cells, vertical is set for
+ * foxes facing up or down and headHigh is set when the head occupies the higher
+ * of its two cells. A value of 0 means there is no fox in that slot.
+ *
+ * @author Samuel Gamelin
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PackedBoard {
+
+    /**
+     * The value used to represent a board that cannot be encoded.
+     */
+    public static final long INVALID = -1L;
+
+    /**
+     * The maximum number of foxes that can be encoded.
+     */
+    public static final int MAX_FOXES = 2;
+
+    /**
+     * The number of cells on the board.
+     */
+    static final int CELLS = Board.SIZE * Board.SIZE;
+
+    /**
+     * A mask covering one bit per cell.
+     */
+    static final long CELL_MASK = (1L << CELLS) - 1;
+
+    /**
+     * A mask of the brown tiles, derived from the base configuration of a board.
+     */
+    static final long BROWN_MASK = computeBrownMask();
+
+    /**
+     * The offset of the mushroom mask.
+     */
+    private static final int MUSHROOM_SHIFT = CELLS;
+
+    /**
+     * The offset of the first fox.
+     */
+    static final int FOX_SHIFT = 2 * CELLS;
+
+    /**
+     * The number of bits used to store a single fox.
+     */
+    static final int FOX_BITS = 7;
+
+    /**
+     * A mask covering a single fox.
+     */
+    private static final long FOX_MASK = (1L << FOX_BITS) - 1;
+
+    /**
+     * The greatest number of moves that can be available from any position.
+     */
+    public static final int MAX_MOVES = 4 * CELLS + MAX_FOXES * (Board.SIZE - 2);
+
+    /**
+     * For every encoded fox, a mask of the two cells it occupies.
+     */
+    private static final long[] FOX_CELLS = computeFoxCells();
+
+    /**
+     * Encodes the specified board.
+     *
+     * @param board The board to encode
+     * @return The packed representation of the board, or INVALID if the board is
+     * null or holds pieces that cannot be encoded (such as more than two foxes)
+     */
+    public static long encode(Board board) {
+        if (board == null) {
+            return INVALID;
+        }
+        long rabbits = 0;
+        long mushrooms = 0;
+        long[] foxes = new long[MAX_FOXES];
+        for (int x = 0; x < Board.SIZE; x++) {
+            for (int y = 0; y < Board.SIZE; y++) {
+                Piece piece = board.getPiece(x, y);
+                if (piece instanceof Rabbit) {
+                    rabbits |= 1L << cell(x, y);
+                } else if (piece instanceof Mushroom) {
+                    mushrooms |= 1L << cell(x, y);
+                } else if (piece instanceof Fox) {
+                    Fox fox = (Fox) piece;
+                    boolean vertical = fox.getDirection() == Fox.Direction.UP ||
+                                       fox.getDirection() == Fox.Direction.DOWN;
+                    boolean headHigh = fox.getDirection() == Fox.Direction.RIGHT ||
+                                       fox.getDirection() == Fox.Direction.DOWN;
+                    // Each fox is recorded once, from its lower half
+                    if ((fox.getFoxType() == Fox.FoxType.HEAD) == headHigh) {
+                        continue;
+                    }
+                    if (board.getPiece(vertical ? x : x + 1, vertical ? y + 1 : y) != fox.getOtherHalf()) {
+                        return INVALID;
+                    }
+                    int slot = fox.getID() ? 1 : 0;
+                    if (foxes[slot] != 0) {
+                        slot = 1 - slot;
+                        if (foxes[slot] != 0) {
+                            return INVALID;
+                        }
+                    }
+                    foxes[slot] = 1 + 4L * cell(x, y) + (vertical ? 2 : 0) + (headHigh ? 1 : 0);
+                }
+            }
+        }
+        long packed = rabbits | mushrooms << MUSHROOM_SHIFT;
+        for (int slot = 0; slot < MAX_FOXES; slot++) {
+            packed |= foxes[slot] << (FOX_SHIFT + FOX_BITS * slot);
+        }
+        return packed;
+    }
+
+    /**
+     * Decodes a packed board into a new board. Rabbits are coloured brown, white
+     * and gray in turn, in the order of their cells, since packed boards do not
+     * record their colours.
+     *
+     * @param packed The packed board
+     * @param name   The name of the new board
+     * @return A board holding the pieces of the packed board
+     */
+    public static Board decode(long packed, String name) {
+        return decode(packed, Rabbit.RabbitColour.values(), name);
+    }
+
+    /**
+     * Decodes a packed board into a new board, colouring its rabbits as specified.
+     *
+     * @param packed  The packed board
+     * @param colours The colour of each rabbit, in the order of their cells. Should
+     *                there be more rabbits than colours, the colours are reused
+     *                in turn.
+     * @param name    The name of the new board
+     * @return A board holding the pieces of the packed board
+     */
+    static Board decode(long packed, Rabbit.RabbitColour[] colours, String name) {
+        Board board = new Board(name);
+        long rabbits = getRabbits(packed);
+        for (int i = 0; rabbits != 0; i++, rabbits &= rabbits - 1) {
+            int cell = Long.numberOfTrailingZeros(rabbits);
+            board.setPiece(new Rabbit(colours[i % colours.length]), cell / Board.SIZE, cell % Board.SIZE);
+        }
+        long mushrooms = getMushrooms(packed);
+        for (; mushrooms != 0; mushrooms &= mushrooms - 1) {
+            int cell = Long.numberOfTrailingZeros(mushrooms);
+            board.setPiece(new Mushroom(), cell / Board.SIZE, cell % Board.SIZE);
+        }
+        for (int slot = 0; slot < MAX_FOXES; slot++) {
+            int fox = getFox(packed, slot);
+            if (fox == 0) {
+                continue;
+            }
+            boolean vertical = isVertical(fox);
+            boolean headHigh = ((fox - 1) & 1) != 0;
+            Fox.Direction direction = vertical ? headHigh ? Fox.Direction.DOWN : Fox.Direction.UP :
+                    headHigh ? Fox.Direction.RIGHT : Fox.Direction.LEFT;
+            Fox head = new Fox(direction, slot == 1);
+            int headCell = foxCell(fox) + (headHigh ? foxStep(fox) : 0);
+            int tailCell = foxCell(fox) + (headHigh ? 0 : foxStep(fox));
+            board.setPiece(head, headCell / Board.SIZE, headCell % Board.SIZE);
+            board.setPiece(head.getOtherHalf(), tailCell / Board.SIZE, tailCell % Board.SIZE);
+        }
+        return board;
+    }
+
+    /**
+     * @param packed The packed board
+     * @return The mask of cells occupied by rabbits
+     */
+    public static long getRabbits(long packed) {
+        return packed & CELL_MASK;
+    }
+
+    /**
+     * @param packed The packed board
+     * @return The mask of cells occupied by mushrooms
+     */
+    public static long getMushrooms(long packed) {
+        return (packed >>> MUSHROOM_SHIFT) & CELL_MASK;
+    }
+
+    /**
+     * @param packed The packed board
+     * @param slot   The fox slot, between 0 and MAX_FOXES - 1
+     * @return The encoded fox in the specified slot, 0 if there is none
+     */
+    static int getFox(long packed, int slot) {
+        return (int) ((packed >>> (FOX_SHIFT + FOX_BITS * slot)) & FOX_MASK);
+    }
+
+    /**
+     * Identifies the level of a packed board. No move changes the mushrooms, the
+     * number of rabbits or the line and facing of a fox, so every position
+     * reachable from a packed board has the same key. Different levels may still
+     * share a key.
+     *
+     * @param packed The packed board
+     * @return The key of the level of the packed board
+     */
+    static long getLevelKey(long packed) {
+        long key = getMushrooms(packed) | (long) Long.bitCount(getRabbits(packed)) << CELLS;
+        for (int slot = 0; slot < MAX_FOXES; slot++) {
+            int fox = getFox(packed, slot);
+            if (fox != 0) {
+                int cell = foxCell(fox);
+                int line = isVertical(fox) ? cell / Board.SIZE : cell % Board.SIZE;
+                key |= (long) (1 + 4 * line + ((fox - 1) & 3)) << CELLS + 5 + 5 * slot;
+            }
+        }
+        return key;
+    }
+
+    /**
+     * @param packed The packed board
+     * @return The mask of all occupied cells
+     */
+    public static long getOccupied(long packed) {
+        long occupied = getRabbits(packed) | getMushrooms(packed);
+        for (int slot = 0; slot < MAX_FOXES; slot++) {
+            occupied |= FOX_CELLS[getFox(packed, slot)];
+        }
+        return occupied;
+    }
+
+    /**
+     * Determines whether the packed board is in a winning state, following the
+     * same rules as Board.isInWinningState.
+     *
+     * @param packed The packed board
+     * @return True if there is at least one rabbit and every rabbit is on a brown
+     * tile, false otherwise
+     */
+    public static boolean isWinning(long packed) {
+        long rabbits = getRabbits(packed);
+        return rabbits != 0 && (rabbits & ~BROWN_MASK) == 0;
+    }
+
+    /**
+     * Returns every packed board reachable from the specified one in a single move.
+     *
+     * @param packed The packed board
+     * @return An array containing every child of the packed board
+     */
+    public static long[] getChildren(long packed) {
+        long[] children = new long[MAX_MOVES];
+        return Arrays.copyOf(children, getChildren(packed, children));
+    }
+
+    /**
+     * Writes every packed board reachable from the specified one in a single move
+     * into the provided array, without allocating.
+     *
+     * @param packed   The packed board
+     * @param children The array to fill, which must hold at least MAX_MOVES values
+     * @return The number of children written
+     */
+    public static int getChildren(long packed, long[] children) {
+        int count = 0;
+        long occupied = getOccupied(packed);
+
+        long rabbits = getRabbits(packed);
+        while (rabbits != 0) {
+            int from = Long.numberOfTrailingZeros(rabbits);
+            rabbits &= rabbits - 1;
+            for (int direction = 0; direction < MoveTables.DIRECTIONS; direction++) {
+                int to = MoveTables.jump(occupied, from, direction);
+                if (to != -1) {
+                    children[count++] = packed & ~(1L << from) | 1L << to;
+                }
+            }
+        }
+
+        for (int slot = 0; slot < MAX_FOXES; slot++) {
+            int fox = getFox(packed, slot);
+            if (fox == 0) {
+                continue;
+            }
+            int cell = foxCell(fox);
+            int step = foxStep(fox);
+            boolean vertical = isVertical(fox);
+            // Slide towards the lower end of the row or column
+            int lower = MoveTables.slide(occupied, cell,
+                    vertical ? MoveTables.Y_DECREASING : MoveTables.X_DECREASING);
+            for (int i = 1; i <= lower; i++) {
+                children[count++] = withFox(packed, slot, fox - 4 * i * step);
+            }
+            // Slide towards the higher end of the row or column
+            int higher = MoveTables.slide(occupied, cell + step,
+                    vertical ? MoveTables.Y_INCREASING : MoveTables.X_INCREASING);
+            for (int i = 1; i <= higher; i++) {
+                children[count++] = withFox(packed, slot, fox + 4 * i * step);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Enumerates every winning packed board holding the same pieces as the
+     * specified one. Mushrooms stay where they are, each fox stays in its row or
+     * column facing the same way, and every rabbit sits on a brown tile.
+     *
+     * @param packed The packed board whose pieces are used
+     * @return An array containing every winning packed board with those pieces
+     */
+    public static long[] getWinningBoards(long packed) {
+        LongStream.Builder winningBoards = LongStream.builder();
+        long withoutPieces = getMushrooms(packed) << MUSHROOM_SHIFT;
+        addWinningBoards(packed, withoutPieces, getMushrooms(packed), 0, winningBoards);
+        return winningBoards.build().toArray();
+    }
+
+    /**
+     * Places the remaining foxes in every possible position along their row or
+     * column, then places the rabbits on every combination of free brown tiles.
+     *
+     * @param packed        The packed board whose pieces are used
+     * @param partial       The packed board built so far
+     * @param occupied      The mask of cells occupied so far
+     * @param slot          The next fox slot to place
+     * @param winningBoards The builder collecting winning packed boards
+     */
+    private static void addWinningBoards(long packed, long partial, long occupied, int slot,
+                                         LongStream.Builder winningBoards) {
+        if (slot == MAX_FOXES) {
+            int rabbitCount = Long.bitCount(getRabbits(packed));
+            long freeHoles = BROWN_MASK & ~occupied;
+            if (rabbitCount == 0 || rabbitCount > Long.bitCount(freeHoles)) {
+                return;
+            }
+            // Visit every subset of the free brown tiles holding exactly one tile per rabbit
+            for (long rabbits = freeHoles; rabbits != 0; rabbits = (rabbits - 1) & freeHoles) {
+                if (Long.bitCount(rabbits) == rabbitCount) {
+                    winningBoards.add(partial | rabbits);
+                }
+            }
+            return;
+        }
+        int fox = getFox(packed, slot);
+        if (fox == 0) {
+            addWinningBoards(packed, partial, occupied, slot + 1, winningBoards);
+            return;
+        }
+        int step = foxStep(fox);
+        int position = isVertical(fox) ? foxCell(fox) % Board.SIZE : foxCell(fox) / Board.SIZE;
+        for (int i = -position; i <= Board.SIZE - 2 - position; i++) {
+            int moved = fox + 4 * i * step;
+            if ((FOX_CELLS[moved] & occupied) == 0) {
+                addWinningBoards(packed, withFox(partial, slot, moved), occupied | FOX_CELLS[moved], slot + 1,
+                        winningBoards);
+            }
+        }
+    }
+
+    /**
+     * Determines the move required to go from one packed board to another. For
+     * foxes, the move starts from the half leading the slide, matching the moves
+     * produced by Fox.getPossibleMoves.
+     *
+     * @param from The packed board before the move
+     * @param to   The packed board after the move
+     * @return The move from one board to the other. Should there be no such move, a
+     * move object with an invalid direction is returned.
+     */
+    public static Move getMove(long from, long to) {
+        long rabbitsFrom = getRabbits(from);
+        long rabbitsTo = getRabbits(to);
+        if (rabbitsFrom != rabbitsTo) {
+            long left = rabbitsFrom & ~rabbitsTo;
+            long arrived = rabbitsTo & ~rabbitsFrom;
+            if (Long.bitCount(left) == 1 && Long.bitCount(arrived) == 1) {
+                return move(Long.numberOfTrailingZeros(left), Long.numberOfTrailingZeros(arrived));
+            }
+        } else {
+            for (int slot = 0; slot < MAX_FOXES; slot++) {
+                int foxFrom = getFox(from, slot);
+                int foxTo = getFox(to, slot);
+                if (foxFrom != foxTo && foxFrom != 0 && foxTo != 0) {
+                    int step = foxStep(foxFrom);
+                    return foxCell(foxTo) < foxCell(foxFrom) ? move(foxCell(foxFrom), foxCell(foxTo)) :
+                            move(foxCell(foxFrom) + step, foxCell(foxTo) + step);
+                }
+            }
+        }
+        return new Move(-1, -1, -1, -1);
+    }
+
+    /**
+     * Applies a move to a packed board. A fox may be moved from either of its
+     * halves.
+     *
+     * @param packed The packed board
+     * @param move   The move to apply
+     * @return The packed board after the move, or INVALID if the move cannot be
+     * made
+     */
+    public static long applyMove(long packed, Move move) {
+        if (move == null || Math.min(Math.min(move.xStart, move.yStart), Math.min(move.xEnd, move.yEnd)) < 0 ||
+            Math.max(Math.max(move.xStart, move.yStart), Math.max(move.xEnd, move.yEnd)) >= Board.SIZE ||
+            move.direction() == Move.MoveDirection.INVALID) {
+            return INVALID;
+        }
+        int from = cell(move.xStart, move.yStart);
+        int to = cell(move.xEnd, move.yEnd);
+        long occupied = getOccupied(packed);
+
+        if ((getRabbits(packed) & 1L << from) != 0) {
+            for (int direction = 0; direction < MoveTables.DIRECTIONS; direction++) {
+                if (MoveTables.jump(occupied, from, direction) == to) {
+                    return packed & ~(1L << from) | 1L << to;
+                }
+            }
+            return INVALID;
+        }
+
+        for (int slot = 0; slot < MAX_FOXES; slot++) {
+            int fox = getFox(packed, slot);
+            if (fox == 0 || (FOX_CELLS[fox] & 1L << from) == 0) {
+                continue;
+            }
+            boolean vertical = isVertical(fox);
+            if (vertical == (move.direction() == Move.MoveDirection.HORIZONTAL)) {
+                return INVALID;
+            }
+            int cell = foxCell(fox);
+            int step = foxStep(fox);
+            int distance = (to - from) / step;
+            // Every cell the fox slides over must be empty
+            int free = distance < 0 ?
+                    MoveTables.slide(occupied, cell, vertical ? MoveTables.Y_DECREASING : MoveTables.X_DECREASING) :
+                    MoveTables.slide(occupied, cell + step, vertical ? MoveTables.Y_INCREASING :
+                            MoveTables.X_INCREASING);
+            return Math.abs(distance) <= free ? withFox(packed, slot, fox + 4 * distance * step) : INVALID;
+        }
+        return INVALID;
+    }
+
+    /**
+     * Determines which fox slot differs between two packed boards.
+     *
+     * @param from The packed board before the move
+     * @param to   The packed board after the move
+     * @return The slot of the fox that moved, -1 if no fox moved
+     */
+    static int getMovedFox(long from, long to) {
+        for (int slot = 0; slot < MAX_FOXES; slot++) {
+            if (getFox(from, slot) != getFox(to, slot)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Replaces the fox in the specified slot.
+     *
+     * @param packed The packed board
+     * @param slot   The fox slot
+     * @param fox    The new encoded fox
+     * @return The packed board with the fox replaced
+     */
+    private static long withFox(long packed, int slot, int fox) {
+        int shift = FOX_SHIFT + FOX_BITS * slot;
+        return packed & ~(FOX_MASK << shift) | (long) fox << shift;
+    }
+
+    /**
+     * @param fox The encoded fox
+     * @return The lower of the two cells occupied by the fox
+     */
+    private static int foxCell(int fox) {
+        return (fox - 1) >>> 2;
+    }
+
+    /**
+     * @param fox The encoded fox
+     * @return The distance in cells between the two halves of the fox
+     */
+    private static int foxStep(int fox) {
+        return isVertical(fox) ? 1 : Board.SIZE;
+    }
+
+    /**
+     * @param fox The encoded fox
+     * @return True if the fox faces up or down, false otherwise
+     */
+    private static boolean isVertical(int fox) {
+        return ((fox - 1) & 2) != 0;
+    }
+
+    /**
+     * @param x The x-coordinate of the position
+     * @param y The y-coordinate of the position
+     * @return The index of the cell at the specified position
+     */
+    static int cell(int x, int y) {
+        return Board.SIZE * x + y;
+    }
+
+    /**
+     * Creates a move between two cells.
+     *
+     * @param from The starting cell
+     * @param to   The ending cell
+     * @return The move between the two cells
+     */
+    private static Move move(int from, int to) {
+        return new Move(from / Board.SIZE, from % Board.SIZE, to / Board.SIZE, to % Board.SIZE);
+    }
+
+    /**
+     * @return A table mapping every encoded fox to the mask of its two cells
+     */
+    private static long[] computeFoxCells() {
+        long[] foxCells = new long[1 << FOX_BITS];
+        for (int fox = 1; fox < foxCells.length; fox++) {
+            int cell = foxCell(fox);
+            int other = cell + foxStep(fox);
+            if (other < CELLS && !(isVertical(fox) && other % Board.SIZE == 0)) {
+                foxCells[fox] = 1L << cell | 1L << other;
+            }
+        }
+        return foxCells;
+    }
+
+    /**
+     * @return A mask of the brown tiles on an empty board
+     */
+    private static long computeBrownMask() {
+        Board board = new Board("");
+        long mask = 0;
+        for (int x = 0; x < Board.SIZE; x++) {
+            for (int y = 0; y < Board.SIZE; y++) {
+                if (!board.tileType(x, y)) {
+                    mask |= 1L << cell(x, y);
+                }
+            }
+        }
+        return mask;
+    }
+}
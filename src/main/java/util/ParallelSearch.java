@@ -0,0 +1,145 @@
+package util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class performs a level-synchronous breadth-first search over packed
+ * boards using every available core. Each layer of the search is split across
+ * the common fork/join pool, with a concurrent map serving as both the visited
+ * set and the parent map shared by all workers. As in the sequential search,
+ * symmetric levels are searched once per symmetry class.
+ *
+ * @author Samuel Gamelin
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ParallelSearch {
+
+    /**
+     * The number of packed boards below which a part of a layer is expanded on a
+     * single thread.
+     */
+    private static final int THRESHOLD = 256;
+
+    /**
+     * Performs a parallel breadth-first search on the specified packed board.
+     * Layers are expanded one at a time and the search stops at the end of the
+     * first layer holding a winning board, so the path found is a shortest one.
+     * The monitor is consulted for every position of a layer before the layer is
+     * expanded, so a search is only ever stopped between two layers.
+     *
+     * @param root    The packed board from which to stem the search
+     * @param monitor The monitor of the search
+     * @return The list of packed boards that form the winning path. Should there be
+     * no winning path, this list will be empty. Should the search be stopped, this
+     * is the path to the best known position.
+     */
+    static List<Long> breadthFirstSearch(long root, SearchMonitor monitor) {
+        if (PackedBoard.isWinning(root)) {
+            return new LinkedList<>();
+        }
+
+        int[] transforms = Symmetry.getTransforms(root);
+        ConcurrentMap<Long, Long> parentMap = new ConcurrentHashMap<>();
+        parentMap.put(Symmetry.canonical(root, transforms), root);
+        AtomicLong winningBoard = new AtomicLong(PackedBoard.INVALID);
+
+        long[] frontier = {root};
+        while (frontier.length > 0 && winningBoard.get() == PackedBoard.INVALID) {
+            for (long packed : frontier) {
+                if (!monitor.expand(packed)) {
+                    return Solver.pathTo(parentMap, root, monitor.getBestKnown(), transforms);
+                }
+            }
+            monitor.observe(frontier.length, parentMap.size());
+            frontier = ForkJoinPool.commonPool().invoke(new LayerTask(frontier, 0, frontier.length, transforms,
+                    parentMap, winningBoard));
+        }
+
+        return Solver.pathTo(parentMap, root, winningBoard.get(), transforms);
+    }
+
+    /**
+     * A task expanding part of a layer, returning the packed boards that it
+     * discovered for the next layer.
+     */
+    private static final class LayerTask extends RecursiveTask<long[]> {
+
+        private final long[] frontier;
+
+        private final int start;
+
+        private final int end;
+
+        private final int[] transforms;
+
+        private final ConcurrentMap<Long, Long> parentMap;
+
+        private final AtomicLong winningBoard;
+
+        /**
+         * Constructs a task expanding the packed boards of a layer between the
+         * specified indices.
+         *
+         * @param frontier     The packed boards of the layer
+         * @param start        The index of the first packed board to expand
+         * @param end          The index following the last packed board to expand
+         * @param transforms   The symmetries of the level being searched
+         * @param parentMap    The shared map of packed boards to their parents
+         * @param winningBoard Holds the first winning packed board found
+         */
+        LayerTask(long[] frontier, int start, int end, int[] transforms, ConcurrentMap<Long, Long> parentMap,
+                  AtomicLong winningBoard) {
+            this.frontier = frontier;
+            this.start = start;
+            this.end = end;
+            this.transforms = transforms;
+            this.parentMap = parentMap;
+            this.winningBoard = winningBoard;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (end - start > THRESHOLD) {
+                int middle = (start + end) >>> 1;
+                LayerTask left = new LayerTask(frontier, start, middle, transforms, parentMap, winningBoard);
+                left.fork();
+                long[] right = new LayerTask(frontier, middle, end, transforms, parentMap, winningBoard).compute();
+                long[] joined = left.join();
+                long[] next = Arrays.copyOf(joined, joined.length + right.length);
+                System.arraycopy(right, 0, next, joined.length, right.length);
+                return next;
+            }
+
+            long[] children = new long[PackedBoard.MAX_MOVES];
+            long[] next = new long[Math.max(PackedBoard.MAX_MOVES, (end - start) * 4)];
+            int size = 0;
+            for (int i = start; i < end && winningBoard.get() == PackedBoard.INVALID; i++) {
+                long current = frontier[i];
+                int count = PackedBoard.getChildren(current, children);
+                for (int j = 0; j < count; j++) {
+                    long child = children[j];
+                    if (parentMap.putIfAbsent(Symmetry.canonical(child, transforms), current) == null) {
+                        if (PackedBoard.isWinning(child)) {
+                            winningBoard.compareAndSet(PackedBoard.INVALID, child);
+                        }
+                        if (size == next.length) {
+                            next = Arrays.copyOf(next, size * 2);
+                        }
+                        next[size++] = child;
+                    }
+                }
+            }
+            return Arrays.copyOf(next, size);
+        }
+    }
+}
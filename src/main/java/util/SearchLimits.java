@@ -0,0 +1,122 @@
+package util;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class represents the limits placed on a single search of the Solver: a
+ * timeout, a budget of positions to expand and a flag through which another
+ * thread may cancel the search. A search that trips any of them stops early and
+ * reports a partial result (see SearchResult).
+ * <p>
+ * The limits also hold the memory an external search may use before spilling
+ * positions to disk. Crossing it never stops a search.
+ *
+ * @author Samuel Gamelin
+ */
+public final class SearchLimits {
+
+    /**
+     * The number of bytes an external search may hold in memory by default.
+     */
+    public static final long DEFAULT_MEMORY_LIMIT = 64L << 20;
+
+    /**
+     * The time a search may run for, measured from its start. Null if there is no
+     * timeout.
+     */
+    @Getter
+    private final Duration timeout;
+
+    /**
+     * The number of positions a search may expand.
+     */
+    @Getter
+    private final long nodeBudget;
+
+    /**
+     * The number of bytes of positions an external search may hold in memory
+     * before spilling them to disk.
+     */
+    @Getter
+    private final long memoryLimit;
+
+    /**
+     * Set once the search has been cancelled.
+     */
+    private final AtomicBoolean cancelled;
+
+    /**
+     * Constructs search limits.
+     *
+     * @param timeout    The time a search may run for, or null for no timeout
+     * @param nodeBudget The number of positions a search may expand, or
+     *                   Long.MAX_VALUE for no budget
+     * @throws IllegalArgumentException If the timeout is negative or the node
+     *                                  budget is not positive
+     */
+    public SearchLimits(Duration timeout, long nodeBudget) {
+        this(timeout, nodeBudget, DEFAULT_MEMORY_LIMIT);
+    }
+
+    /**
+     * Constructs search limits with a memory limit for external searches.
+     *
+     * @param timeout     The time a search may run for, or null for no timeout
+     * @param nodeBudget  The number of positions a search may expand, or
+     *                    Long.MAX_VALUE for no budget
+     * @param memoryLimit The number of bytes of positions an external search may
+     *                    hold in memory before spilling them to disk
+     * @throws IllegalArgumentException If the timeout is negative, or the node
+     *                                  budget or memory limit is not positive
+     */
+    public SearchLimits(Duration timeout, long nodeBudget, long memoryLimit) {
+        if (timeout != null && timeout.isNegative()) {
+            throw new IllegalArgumentException("Timeout must not be negative");
+        }
+        if (nodeBudget <= 0) {
+            throw new IllegalArgumentException("Node budget must be positive");
+        }
+        if (memoryLimit <= 0) {
+            throw new IllegalArgumentException("Memory limit must be positive");
+        }
+        this.timeout = timeout;
+        this.nodeBudget = nodeBudget;
+        this.memoryLimit = memoryLimit;
+        this.cancelled = new AtomicBoolean();
+    }
+
+    /**
+     * @return Limits with no timeout and no node budget, which may still be
+     * cancelled
+     */
+    public static SearchLimits unlimited() {
+        return new SearchLimits(null, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param timeout The time a search may run for
+     * @return Limits with the specified timeout and no node budget
+     */
+    public static SearchLimits withTimeout(Duration timeout) {
+        return new SearchLimits(Objects.requireNonNull(timeout), Long.MAX_VALUE);
+    }
+
+    /**
+     * Cancels any search running under these limits. The search stops at its next
+     * expansion.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    /**
+     * @return True if these limits have been cancelled, false otherwise
+     */
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+}
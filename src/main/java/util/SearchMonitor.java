@@ -0,0 +1,192 @@
+package util;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * This class tracks a single search against its SearchLimits. Searches report
+ * every position they expand, and the monitor tells them when to stop. It also
+ * remembers the expanded position with the lowest Heuristic estimate, which is
+ * the best known answer should the search be stopped. Along the way, it
+ * gathers the SearchStatistics of the request.
+ * <p>
+ * A monitor is used by one thread at a time.
+ *
+ * @author Samuel Gamelin
+ */
+final class SearchMonitor {
+
+    /**
+     * The number of expansions between two readings of the clock.
+     */
+    private static final int CLOCK_INTERVAL = 1024;
+
+    private final SearchLimits limits;
+
+    /**
+     * Whether the search has a timeout.
+     */
+    private final boolean timed;
+
+    /**
+     * The value of System.nanoTime past which the search must stop, if it has a
+     * timeout.
+     */
+    private final long deadline;
+
+    /**
+     * The number of positions expanded so far.
+     */
+    @Getter
+    private long expanded;
+
+    /**
+     * Whether the search was stopped by its limits.
+     */
+    @Getter
+    private boolean interrupted;
+
+    /**
+     * The expanded position estimated to be closest to a win, PackedBoard.INVALID
+     * if none has been reported.
+     */
+    @Getter
+    private long bestKnown = PackedBoard.INVALID;
+
+    private int bestEstimate = Integer.MAX_VALUE;
+
+    /**
+     * The largest visited set and frontier reported so far.
+     */
+    private int visited, maxFrontier;
+
+    /**
+     * Where the answer came from, SEARCH unless told otherwise.
+     */
+    @Setter
+    private SearchStatistics.Source source = SearchStatistics.Source.SEARCH;
+
+    /**
+     * The values of System.nanoTime when monitoring started and when the lookup,
+     * search and cleaning phases ended, 0 for phases that did not take place.
+     */
+    private final long start;
+
+    private long lookupEnd, searchEnd, cleanEnd;
+
+    /**
+     * Starts monitoring a search.
+     *
+     * @param limits The limits of the search
+     */
+    SearchMonitor(SearchLimits limits) {
+        this.limits = limits;
+        this.start = System.nanoTime();
+        this.timed = limits.getTimeout() != null;
+        this.deadline = timed ? start + limits.getTimeout().toNanos() : 0;
+    }
+
+    /**
+     * Reports the expansion of a position which may be the best known answer.
+     *
+     * @param packed The packed board being expanded
+     * @return True if the search may go on, false if it must stop
+     */
+    boolean expand(long packed) {
+        // Tracked whatever the limits, as even an unlimited search may be cancelled
+        int estimate = Heuristic.estimate(packed);
+        if (estimate < bestEstimate) {
+            bestEstimate = estimate;
+            bestKnown = packed;
+        }
+        return expand();
+    }
+
+    /**
+     * Reports the expansion of a position which cannot be an answer, such as one
+     * on the backward side of a bidirectional search.
+     *
+     * @return True if the search may go on, false if it must stop
+     */
+    boolean expand() {
+        if (interrupted) {
+            return false;
+        }
+        expanded++;
+        interrupted = expanded > limits.getNodeBudget() || limits.isCancelled() ||
+                      timed && expanded % CLOCK_INTERVAL == 1 && System.nanoTime() - deadline > 0;
+        return !interrupted;
+    }
+
+    /**
+     * @param positions A number of positions
+     * @return True if the search may still expand that many positions before
+     * running out of its node budget, false otherwise
+     */
+    boolean hasBudgetFor(long positions) {
+        return !interrupted && limits.getNodeBudget() - expanded >= positions;
+    }
+
+    /**
+     * @return The number of bytes of positions an external search may hold in
+     * memory before spilling them to disk
+     */
+    long getMemoryLimit() {
+        return limits.getMemoryLimit();
+    }
+
+    /**
+     * Reports the current size of the search.
+     *
+     * @param frontierSize The number of positions waiting to be expanded
+     * @param visitedSize  The number of positions in the visited set
+     */
+    void observe(int frontierSize, int visitedSize) {
+        maxFrontier = Math.max(maxFrontier, frontierSize);
+        visited = Math.max(visited, visitedSize);
+    }
+
+    /**
+     * Marks the end of the lookup phase.
+     */
+    void endLookup() {
+        lookupEnd = System.nanoTime();
+    }
+
+    /**
+     * Marks the end of the search phase.
+     */
+    void endSearch() {
+        searchEnd = System.nanoTime();
+    }
+
+    /**
+     * Marks the end of the cleaning phase.
+     */
+    void endClean() {
+        cleanEnd = System.nanoTime();
+    }
+
+    /**
+     * Gathers the statistics of the request, which is considered finished.
+     *
+     * @param strategy The strategy requested for the search
+     * @return The statistics of the request
+     */
+    SearchStatistics getStatistics(Solver.Strategy strategy) {
+        long end = System.nanoTime();
+        Runtime runtime = Runtime.getRuntime();
+        return new SearchStatistics(source, strategy, expanded, visited, maxFrontier, between(start, lookupEnd),
+                between(lookupEnd, searchEnd), between(searchEnd, cleanEnd), end - start,
+                runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    /**
+     * @param from The start of a phase, 0 if it did not take place
+     * @param to   The end of a phase, 0 if it did not take place
+     * @return The length of the phase, 0 if it did not take place
+     */
+    private static long between(long from, long to) {
+        return from == 0 || to == 0 ? 0 : to - from;
+    }
+}
@@ -0,0 +1,56 @@
+package util;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * This class represents the outcome of a search by the Solver, which may have
+ * been cut short by its SearchLimits.
+ *
+ * @author Samuel Gamelin
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public final class SearchResult {
+
+    /**
+     * How far the search got.
+     */
+    private final Status status;
+
+    /**
+     * The next move. For a BEST_KNOWN result this is the first move towards the
+     * most promising position explored. Otherwise, if there is no next move, it is
+     * a move object with an invalid direction.
+     */
+    private final Move move;
+
+    /**
+     * What the solver did to reach this result.
+     */
+    private final SearchStatistics statistics;
+
+    /**
+     * An enumeration of the outcomes of a search.
+     */
+    public enum Status {
+        /**
+         * The move starts a shortest solution, or the board is already won.
+         */
+        SOLVED,
+        /**
+         * The search was stopped early, and the move heads towards the explored
+         * position estimated to be closest to a win.
+         */
+        BEST_KNOWN,
+        /**
+         * The search was stopped before it could suggest any move.
+         */
+        UNKNOWN,
+        /**
+         * The board cannot be won.
+         */
+        UNSOLVABLE
+    }
+}
@@ -0,0 +1,96 @@
+package util;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * This class represents what the Solver did to answer a single request: where
+ * the answer came from, how much of the game tree was explored and how long
+ * each phase took. Every SearchResult carries one.
+ *
+ * @author Samuel Gamelin
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public final class SearchStatistics {
+
+    /**
+     * Where the answer came from.
+     */
+    private final Source source;
+
+    /**
+     * The strategy requested for the search.
+     */
+    private final Solver.Strategy strategy;
+
+    /**
+     * The number of positions expanded.
+     */
+    private final long expandedNodes;
+
+    /**
+     * The largest number of positions held in the visited set.
+     */
+    private final int visitedNodes;
+
+    /**
+     * The largest number of positions waiting to be expanded.
+     */
+    private final int maxFrontierSize;
+
+    /**
+     * The time spent looking the position up in the session and solution cache,
+     * in nanoseconds.
+     */
+    private final long lookupNanos;
+
+    /**
+     * The time spent searching, in nanoseconds.
+     */
+    private final long searchNanos;
+
+    /**
+     * The time spent cleaning the solution and remembering it, in nanoseconds.
+     */
+    private final long cleanNanos;
+
+    /**
+     * The total time taken, in nanoseconds.
+     */
+    private final long totalNanos;
+
+    /**
+     * The heap in use once the answer was found, in bytes.
+     */
+    private final long heapUsedBytes;
+
+    /**
+     * An enumeration of the places an answer can come from.
+     */
+    public enum Source {
+        /**
+         * A solution remembered by the session.
+         */
+        SESSION,
+        /**
+         * The session's table of reachable positions.
+         */
+        REACHABLE_TABLE,
+        /**
+         * The persistent solution cache.
+         */
+        SOLUTION_CACHE,
+        /**
+         * A new table of reachable positions, built after the player strayed.
+         */
+        REPAIR,
+        /**
+         * A new search.
+         */
+        SEARCH
+    }
+}
@@ -0,0 +1,268 @@
+package util;
+
+import lombok.extern.log4j.Log4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents a persistent cache of solutions found by the Solver.
+ * For every packed board on a solution path, the cache remembers the packed
+ * board that follows it. Since any part of a shortest path is itself a shortest
+ * path, following these entries from any cached position leads to a win in the
+ * fewest moves.
+ * <p>
+ * Entries are appended to a text file, one per line, as the two packed boards
+ * in hexadecimal. The file is only read the first time the cache is used. The
+ * cache holds at most a fixed number of entries, the oldest being evicted first,
+ * and the file is rewritten once it holds as many stale lines (evicted, removed,
+ * duplicated or malformed entries) as live ones, so that it never grows without
+ * bound.
+ * <p>
+ * The file is not trusted: callers should check that the packed board returned
+ * by getNext can actually be reached from the one looked up, and remove the
+ * entry if not.
+ *
+ * @author Samuel Gamelin
+ */
+@Log4j
+public class SolutionCache {
+
+    /**
+     * The default largest number of entries held by a cache.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1 << 16;
+
+    /**
+     * The number of stale lines the file may always hold before being rewritten.
+     */
+    static final int COMPACTION_THRESHOLD = 64;
+
+    /**
+     * The file holding the cached entries.
+     */
+    private final Path path;
+
+    /**
+     * The largest number of entries held by this cache.
+     */
+    private final int maxEntries;
+
+    /**
+     * Maps each cached packed board to the packed board that follows it on a
+     * solution path, oldest entries first. Null until the file has been read.
+     */
+    private Map<Long, Long> nextBoards;
+
+    /**
+     * The number of lines in the file.
+     */
+    private int fileLines;
+
+    /**
+     * Whether the file exists but could not be read, in which case it is never
+     * rewritten.
+     */
+    private boolean fileUnreadable;
+
+    /**
+     * Constructs a solution cache backed by the specified file, which is created
+     * when the first entry is added, holding at most DEFAULT_MAX_ENTRIES entries.
+     *
+     * @param path The path of the file holding the cached entries
+     */
+    public SolutionCache(Path path) {
+        this(path, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Constructs a solution cache backed by the specified file, which is created
+     * when the first entry is added.
+     *
+     * @param path       The path of the file holding the cached entries
+     * @param maxEntries The largest number of entries held by the cache
+     * @throws IllegalArgumentException If maxEntries is not positive
+     */
+    public SolutionCache(Path path, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("The maximum number of entries must be positive");
+        }
+        this.path = path;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Looks up the packed board following the specified one on a solution path.
+     *
+     * @param packed The packed board
+     * @return The next packed board on a solution path, or PackedBoard.INVALID if
+     * the packed board is not cached
+     */
+    public synchronized long getNext(long packed) {
+        return load().getOrDefault(packed, PackedBoard.INVALID);
+    }
+
+    /**
+     * Adds every packed board of a solution path to this cache, writing the new
+     * entries to the file. The oldest entries are evicted if the cache is full.
+     *
+     * @param path The list of packed boards forming a shortest winning path
+     */
+    public synchronized void addPath(List<Long> path) {
+        Map<Long, Long> cached = load();
+        StringBuilder entries = new StringBuilder();
+        int added = 0;
+        for (int i = 0; i + 1 < path.size(); i++) {
+            if (cached.putIfAbsent(path.get(i), path.get(i + 1)) == null) {
+                append(entries, path.get(i), path.get(i + 1));
+                added++;
+            }
+        }
+        if (added == 0) {
+            return;
+        }
+        if (cached.size() > maxEntries) {
+            // Evicting leaves the evicted lines in the file, so rewrite it at once
+            evict();
+            compact();
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(this.path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(entries.toString());
+            fileLines += added;
+        } catch (IOException e) {
+            log.error("Unable to write to the solution cache at " + this.path, e);
+        }
+    }
+
+    /**
+     * Removes the entry of a packed board, for instance because it does not lead
+     * to a legal next board.
+     *
+     * @param packed The packed board
+     */
+    public synchronized void remove(long packed) {
+        if (load().remove(packed) != null) {
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * @return The number of packed boards in this cache
+     */
+    public synchronized int size() {
+        return load().size();
+    }
+
+    /**
+     * Reads the cached entries from the file, if that has not been done yet.
+     * Malformed lines are skipped, and only the newest entries are kept if the
+     * file holds more than the cache may.
+     *
+     * @return The map of cached entries
+     */
+    private Map<Long, Long> load() {
+        if (nextBoards != null) {
+            return nextBoards;
+        }
+        nextBoards = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                fileLines++;
+                String[] entry = line.trim().split(" ");
+                try {
+                    if (entry.length == 2) {
+                        nextBoards.put(Long.parseUnsignedLong(entry[0], 16), Long.parseUnsignedLong(entry[1], 16));
+                    }
+                } catch (NumberFormatException e) {
+                    log.warn("Skipping malformed solution cache entry: " + line);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // Nothing has been cached yet
+        } catch (IOException e) {
+            log.error("Unable to read the solution cache at " + path, e);
+            fileUnreadable = true;
+        }
+        if (nextBoards.size() > maxEntries) {
+            evict();
+        }
+        compactIfNeeded();
+        return nextBoards;
+    }
+
+    /**
+     * Evicts the oldest entries, leaving room for a quarter of the maximum number
+     * of entries so that the file is not rewritten on every addition.
+     */
+    private void evict() {
+        int target = maxEntries - maxEntries / 4;
+        Iterator<Long> keys = nextBoards.keySet().iterator();
+        while (nextBoards.size() > target) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /**
+     * Rewrites the file once it holds as many stale lines as entries, so that each
+     * stale line costs constant time on average.
+     */
+    private void compactIfNeeded() {
+        if (fileLines - nextBoards.size() >= Math.max(COMPACTION_THRESHOLD, nextBoards.size())) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites the file with exactly the entries of this cache.
+     */
+    private void compact() {
+        if (fileUnreadable) {
+            return;
+        }
+        StringBuilder entries = new StringBuilder();
+        for (Map.Entry<Long, Long> entry : nextBoards.entrySet()) {
+            append(entries, entry.getKey(), entry.getValue());
+        }
+        Path temporaryFile = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.writeString(temporaryFile, entries, StandardCharsets.UTF_8);
+            try {
+                Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            fileLines = nextBoards.size();
+        } catch (IOException e) {
+            log.error("Unable to compact the solution cache at " + path, e);
+        }
+    }
+
+    /**
+     * Appends the line of an entry.
+     *
+     * @param entries The lines to append to
+     * @param packed  The cached packed board
+     * @param next    The packed board following it
+     */
+    private static void append(StringBuilder entries, long packed, long next) {
+        entries.append(Long.toHexString(packed)).append(' ').append(Long.toHexString(next))
+               .append(System.lineSeparator());
+    }
+}
@@ -0,0 +1,48 @@
+package util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event emitted for every request made to the Solver. It is
+ * only recorded when enabled, for instance by starting the game with
+ * -XX:StartFlightRecording, and otherwise costs next to nothing.
+ *
+ * @author Samuel Gamelin
+ */
+@Name("util.Solve")
+@Label("Solve")
+@Category("Rabbits and Foxes")
+@Description("A request for the next best move")
+final class SolveEvent extends Event {
+
+    @Label("Board")
+    @Description("The packed board, in hexadecimal")
+    String board;
+
+    @Label("Status")
+    String status;
+
+    @Label("Source")
+    String source;
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Expanded Nodes")
+    long expandedNodes;
+
+    @Label("Visited Nodes")
+    int visitedNodes;
+
+    @Label("Maximum Frontier Size")
+    int maxFrontierSize;
+
+    @Label("Heap Used")
+    @DataAmount
+    long heapUsed;
+}
@@ -1,24 +1,130 @@
 package util;
 
-import lombok.AccessLevel;
-import lombok.NoArgsConstructor;
 import model.Board;
-import model.Fox;
-import model.Piece;
 
 import java.util.*;
 
 /**
  * This class is used to solve a board representing a state in the game of
- * Rabbits and Foxes.
+ * Rabbits and Foxes. Boards are searched in their packed form (see
+ * PackedBoard), which keeps every explored position down to a single long.
+ * <p>
+ * Each solver acts as a session, typically one per game, remembering the
+ * solutions it has found in a bounded cache of its own. Solvers are safe to use
+ * from several threads at once, and searches run outside of any lock so that
+ * concurrent hints never wait on one another.
+ * <p>
+ * A player following the hints stays on a remembered solution. The first time
+ * the player strays from it, the session works out the distance to a win of
+ * every position reachable from there and keeps it, so that any later hint for
+ * that level is a lookup rather than a new search. This is only done when at
+ * most MAX_REPAIR_STATES positions are reachable and the search's node budget
+ * allows for all of them; otherwise the session searches as usual. Moving on to
+ * a different level forgets the table.
  *
  * @author Samuel Gamelin
  * @author Mohamed Radwan
  */
-@NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class Solver {
 
-    private static List<Node> lastHint;
+    /**
+     * The number of packed boards a session remembers by default.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * The largest number of positions covered by the table a session builds when
+     * the player strays from a solution.
+     */
+    static final int MAX_REPAIR_STATES = 1 << 16;
+
+    /**
+     * The persistent cache shared by sessions created without one, if it has been
+     * set.
+     */
+    private static volatile SolutionCache defaultSolutionCache;
+
+    /**
+     * The strategy used by this session unless another one is requested.
+     */
+    private final Strategy strategy;
+
+    /**
+     * The persistent cache consulted by this session before any search, null if
+     * there is none.
+     */
+    private final SolutionCache solutionCache;
+
+    /**
+     * Maps each packed board this session has solved, or that lies on a solution
+     * it found, to the packed board that follows it. Packed boards with no next
+     * move map to PackedBoard.INVALID. The least recently used entries are evicted
+     * once the session's capacity is reached.
+     */
+    private final Map<Long, Long> hints;
+
+    /**
+     * The key (see PackedBoard.getLevelKey) of the level last solved by this
+     * session. The fields below only concern that level.
+     */
+    private long sessionLevel = PackedBoard.INVALID;
+
+    /**
+     * The distance to a win of every position reachable from the position the
+     * player last strayed to, null until the player first strays from a solution.
+     */
+    private volatile Tablebase reachable;
+
+    /**
+     * Whether this session has searched for a solution before.
+     */
+    private volatile boolean searched;
+
+    /**
+     * Whether the positions reachable in the level may be few enough to build
+     * their table.
+     */
+    private volatile boolean repairable = true;
+
+    /**
+     * Constructs a solver session using a breadth-first search, the default
+     * capacity and the default solution cache.
+     */
+    public Solver() {
+        this(Strategy.BREADTH_FIRST, defaultSolutionCache, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a solver session.
+     *
+     * @param strategy      The search strategy used unless another one is requested
+     * @param solutionCache The persistent cache to consult before any search, or
+     *                      null to use none
+     * @param capacity      The number of packed boards this session remembers
+     */
+    public Solver(Strategy strategy, SolutionCache solutionCache, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.strategy = Objects.requireNonNull(strategy);
+        this.solutionCache = solutionCache;
+        this.hints = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * Sets the persistent cache of solutions used by sessions created with the
+     * default constructor from now on.
+     *
+     * @param cache The solution cache to use, or null to disable caching
+     */
+    public static void setDefaultSolutionCache(SolutionCache cache) {
+        defaultSolutionCache = cache;
+    }
 
     /**
      * Determines the next best move, given a board object.
@@ -27,99 +133,481 @@ public final class Solver {
      * @return The next best move. Should there be no next best move, a move object
      * with an invalid direction is returned.
      */
-    public static Move getNextBestMove(Board board) {
-        if (board == null) {
-            return new Move(-1, -1, -1, -1);
+    public Move getNextBestMove(Board board) {
+        return getNextBestMove(board, strategy);
+    }
+
+    /**
+     * Determines the next best move, given a board object and the search strategy
+     * used to find it. Every strategy finds an optimal solution.
+     *
+     * @param board    The board whose next best move is to be determined
+     * @param strategy The search strategy to use
+     * @return The next best move. Should there be no next best move, a move object
+     * with an invalid direction is returned.
+     */
+    public Move getNextBestMove(Board board, Strategy strategy) {
+        return solve(board, strategy, SearchLimits.unlimited()).getMove();
+    }
+
+    /**
+     * Searches for the next best move within the specified limits.
+     *
+     * @param board  The board whose next best move is to be determined
+     * @param limits The limits of the search
+     * @return The result of the search
+     */
+    public SearchResult solve(Board board, SearchLimits limits) {
+        return solve(board, strategy, limits);
+    }
+
+    /**
+     * Searches for the next best move with the specified strategy and within the
+     * specified limits. Should the search be stopped by its limits, the result
+     * holds the best move known at that point, if any, and nothing is remembered
+     * for later hints.
+     *
+     * @param board    The board whose next best move is to be determined
+     * @param strategy The search strategy to use
+     * @param limits   The limits of the search
+     * @return The result of the search
+     * @throws java.io.UncheckedIOException If an external search cannot use its
+     *                                      temporary files
+     */
+    public SearchResult solve(Board board, Strategy strategy, SearchLimits limits) {
+        Objects.requireNonNull(limits);
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        long packed = PackedBoard.encode(board);
+        SearchResult result = solve(packed, strategy, new SearchMonitor(limits));
+        event.end();
+        if (event.shouldCommit()) {
+            SearchStatistics statistics = result.getStatistics();
+            event.board = Long.toHexString(packed);
+            event.status = result.getStatus().name();
+            event.source = statistics.getSource().name();
+            event.strategy = strategy.name();
+            event.expandedNodes = statistics.getExpandedNodes();
+            event.visitedNodes = statistics.getVisitedNodes();
+            event.maxFrontierSize = statistics.getMaxFrontierSize();
+            event.heapUsed = statistics.getHeapUsedBytes();
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * Searches for the next best move from a packed board.
+     *
+     * @param packed   The packed board, which may be PackedBoard.INVALID
+     * @param strategy The search strategy to use
+     * @param monitor  The monitor of the search
+     * @return The result of the search
+     */
+    private SearchResult solve(long packed, Strategy strategy, SearchMonitor monitor) {
+        if (packed == PackedBoard.INVALID) {
+            return result(SearchResult.Status.UNSOLVABLE, new Move(-1, -1, -1, -1), strategy, monitor);
+        }
+
+        enterLevel(packed);
+        monitor.setSource(SearchStatistics.Source.SESSION);
+        Long next = hints.get(packed);
+        if (next == null) {
+            monitor.setSource(SearchStatistics.Source.REACHABLE_TABLE);
+            next = getNextFromReachable(packed);
+        }
+        if (next == null && solutionCache != null) {
+            monitor.setSource(SearchStatistics.Source.SOLUTION_CACHE);
+            long cached = solutionCache.getNext(packed);
+            if (cached != PackedBoard.INVALID && isChild(packed, cached)) {
+                next = cached;
+                hints.put(packed, next);
+            } else if (cached != PackedBoard.INVALID) {
+                // The cache file was edited or corrupted, so forget the entry and search
+                solutionCache.remove(packed);
+            }
+        }
+        monitor.endLookup();
+        if (next == null && searched && repairable && monitor.hasBudgetFor(MAX_REPAIR_STATES)) {
+            // The player strayed from every solution found so far, so repair the
+            // solution from a table covering all the positions they can reach
+            monitor.setSource(SearchStatistics.Source.REPAIR);
+            Tablebase table = Tablebase.buildReachable(packed, monitor, MAX_REPAIR_STATES);
+            if (table != null) {
+                monitor.endSearch();
+                reachable = table;
+                next = getNextFromReachable(packed);
+                if (next == null) {
+                    next = PackedBoard.INVALID;
+                    hints.put(packed, next);
+                }
+            } else if (!monitor.isInterrupted()) {
+                // Too many positions are reachable, so only search from now on
+                repairable = false;
+            }
+        }
+        if (next == null) {
+            monitor.setSource(SearchStatistics.Source.SEARCH);
+            List<Long> path = switch (strategy) {
+                case A_STAR -> aStarSearch(packed, monitor);
+                case BIDIRECTIONAL -> bidirectionalSearch(packed, monitor);
+                case PARALLEL_BREADTH_FIRST -> ParallelSearch.breadthFirstSearch(packed, monitor);
+                case EXTERNAL_BREADTH_FIRST -> ExternalSearch.breadthFirstSearch(packed, monitor);
+                default -> breadthFirstSearch(packed, monitor);
+            };
+            monitor.endSearch();
+            path = cleanPath(path);
+            if (monitor.isInterrupted()) {
+                monitor.endClean();
+                return path.size() > 1 ?
+                        result(SearchResult.Status.BEST_KNOWN, PackedBoard.getMove(packed, path.get(1)), strategy,
+                                monitor) :
+                        result(SearchResult.Status.UNKNOWN, new Move(-1, -1, -1, -1), strategy, monitor);
+            }
+            searched = true;
+            if (path.isEmpty()) {
+                next = PackedBoard.INVALID;
+                hints.put(packed, next);
+            } else {
+                next = path.get(1);
+                for (int i = 0; i + 1 < path.size(); i++) {
+                    hints.put(path.get(i), path.get(i + 1));
+                }
+                if (solutionCache != null) {
+                    solutionCache.addPath(path);
+                }
+            }
+            monitor.endClean();
+        }
+
+        if (next == PackedBoard.INVALID) {
+            return result(PackedBoard.isWinning(packed) ? SearchResult.Status.SOLVED :
+                    SearchResult.Status.UNSOLVABLE, new Move(-1, -1, -1, -1), strategy, monitor);
+        }
+        return result(SearchResult.Status.SOLVED, PackedBoard.getMove(packed, next), strategy, monitor);
+    }
+
+    /**
+     * Creates the result of a search, gathering its statistics.
+     *
+     * @param status   How far the search got
+     * @param move     The next move
+     * @param strategy The search strategy requested
+     * @param monitor  The monitor of the search
+     * @return The result of the search
+     */
+    private static SearchResult result(SearchResult.Status status, Move move, Strategy strategy,
+                                       SearchMonitor monitor) {
+        return new SearchResult(status, move, monitor.getStatistics(strategy));
+    }
+
+    /**
+     * Forgets what this session knows about the level last solved if the packed
+     * board belongs to another one.
+     *
+     * @param packed The packed board about to be solved
+     */
+    private synchronized void enterLevel(long packed) {
+        long level = PackedBoard.getLevelKey(packed);
+        if (level != sessionLevel) {
+            sessionLevel = level;
+            reachable = null;
+            searched = false;
+            repairable = true;
         }
+    }
 
-        Node node = new Node(board);
+    /**
+     * @param packed A packed board
+     * @param child  Another packed board
+     * @return True if a single move leads from the first packed board to the
+     * other, false otherwise
+     */
+    private static boolean isChild(long packed, long child) {
+        for (long candidate : PackedBoard.getChildren(packed)) {
+            if (candidate == child) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        if (lastHint == null || !lastHint.contains(node)) {
-            lastHint = cleanNodeList(breadthFirstSearch(node));
+    /**
+     * Looks up the packed board following the specified one on a shortest path,
+     * using the table of reachable positions.
+     *
+     * @param packed The packed board
+     * @return The next packed board, PackedBoard.INVALID if the packed board is
+     * already winning, or null if the table does not cover the packed board
+     */
+    private Long getNextFromReachable(long packed) {
+        Tablebase table = reachable;
+        int distance = table == null ? -1 : table.getDistance(packed);
+        if (distance == 0) {
+            return PackedBoard.INVALID;
+        }
+        if (distance > 0) {
+            for (long child : PackedBoard.getChildren(packed)) {
+                if (table.getDistance(child) == distance - 1) {
+                    return child;
+                }
+            }
         }
+        return null;
+    }
 
-        if (!lastHint.isEmpty()) {
-            int boardOne = lastHint.indexOf(node);
-            if (lastHint.size() > boardOne) {
-                return lastHint.get(boardOne).getMoveTo(lastHint.get(boardOne + 1));
+    /**
+     * Cleans the path from unwanted fox moves (repeated, consecutive moves with the
+     * same fox). The moves themselves are never replayed: the fox that moved
+     * between two packed boards is read directly from their difference.
+     *
+     * @param path The list of packed boards to clean
+     * @return A list of packed boards where unwanted boards have been removed,
+     * supporting constant-time access by index
+     */
+    private static List<Long> cleanPath(List<Long> path) {
+        long[] boards = path.stream().mapToLong(Long::longValue).toArray();
+        List<Long> cleanedPath = new ArrayList<>(boards.length);
+        for (int i = 0; i < boards.length; i++) {
+            if (i > 0 && i < boards.length - 2) {
+                int fox = PackedBoard.getMovedFox(boards[i - 1], boards[i]);
+                if (fox != -1 && fox == PackedBoard.getMovedFox(boards[i], boards[i + 1])) {
+                    continue;
+                }
             }
+            cleanedPath.add(boards[i]);
         }
-        return new Move(-1, -1, -1, -1);
+        return cleanedPath;
     }
 
     /**
-     * Cleans the list from unwanted fox moves (repeated, consecutive moves with the
-     * same fox).
+     * Performs a breadth-first search on the specified packed board. When the
+     * level is symmetric, positions are only visited once per symmetry class (see
+     * Symmetry), the first position reached in a class standing for the others.
      *
-     * @param nodeList The list of nodes to clean
-     * @return A list of nodes where unwanted nodes have been removed
+     * @param root    The packed board from which to stem the search
+     * @param monitor The monitor of the search
+     * @return The list of packed boards that form the winning path. Should there be
+     * no winning path, this list will be empty. Should the search be stopped, this
+     * is the path to the best known position.
      */
-    private static List<Node> cleanNodeList(List<Node> nodeList) {
-        if (nodeList == null || nodeList.size() < 3) {
-            return nodeList;
+    private static List<Long> breadthFirstSearch(long root, SearchMonitor monitor) {
+        if (PackedBoard.isWinning(root)) {
+            return new LinkedList<>();
         }
-        List<Node> removeFromList = new ArrayList<>();
 
-        for (int i = 0; i < nodeList.size() - 3; i++) {
-            Node node1 = nodeList.get(i);
-            Node node2 = nodeList.get(i + 1);
-            Node node3 = nodeList.get(i + 2);
+        Queue<Long> queue = new ArrayDeque<>();
+        queue.add(root);
 
-            Move from1to2 = node1.getMoveTo(node2);
-            Move from2to3 = node2.getMoveTo(node3);
+        int[] transforms = Symmetry.getTransforms(root);
 
-            Piece piece1 = node1.getBoard().getPiece(from1to2.xStart, from1to2.yStart);
-            Piece piece2 = node2.getBoard().getPiece(from2to3.xStart, from2to3.yStart);
+        // Doubles as the visited set, with the root being its own parent. Each key
+        // is the canonical form of a position actually reached when the level is
+        // symmetric, so parents always lead back to the root by real moves
+        Map<Long, Long> parentMap = new HashMap<>();
+        parentMap.put(Symmetry.canonical(root, transforms), root);
 
-            if (piece1 instanceof Fox && piece2 instanceof Fox && ((Fox) piece1).getID() == ((Fox) piece2).getID()) {
-                removeFromList.add(node2);
+        long[] children = new long[PackedBoard.MAX_MOVES];
+        while (!queue.isEmpty()) {
+            long current = queue.remove();
+            if (!monitor.expand(current)) {
+                return pathTo(parentMap, root, monitor.getBestKnown(), transforms);
             }
+            monitor.observe(queue.size(), parentMap.size());
+            int count = PackedBoard.getChildren(current, children);
+            for (int i = 0; i < count; i++) {
+                long child = children[i];
+                if (parentMap.putIfAbsent(Symmetry.canonical(child, transforms), current) == null) {
+                    if (PackedBoard.isWinning(child)) {
+                        return pathTo(parentMap, root, child, transforms);
+                    }
+                    queue.add(child);
+                }
+            }
+        }
+        return new LinkedList<>();
+    }
+
+    /**
+     * Performs an A* search on the specified packed board, expanding positions in
+     * order of their depth plus the Heuristic estimate of their distance to a
+     * winning state. Since that estimate is consistent, the first winning position
+     * expanded lies at the end of a shortest path.
+     *
+     * @param root    The packed board from which to stem the search
+     * @param monitor The monitor of the search
+     * @return The list of packed boards that form the winning path. Should there be
+     * no winning path, this list will be empty. Should the search be stopped, this
+     * is the path to the best known position.
+     */
+    private static List<Long> aStarSearch(long root, SearchMonitor monitor) {
+        int rootEstimate = Heuristic.estimate(root);
+        if (PackedBoard.isWinning(root) || rootEstimate == Integer.MAX_VALUE) {
+            return new LinkedList<>();
         }
 
-        nodeList.removeAll(removeFromList);
-        return nodeList;
+        // Estimates are small integers, so the open list is a queue per estimate
+        List<Deque<Long>> openList = new ArrayList<>();
+        addToOpenList(openList, rootEstimate, root);
+        int openCount = 1;
+
+        Map<Long, Long> parentMap = new HashMap<>();
+        parentMap.put(root, root);
+        Map<Long, Integer> depthMap = new HashMap<>();
+        depthMap.put(root, 0);
+
+        long[] children = new long[PackedBoard.MAX_MOVES];
+        for (int estimate = rootEstimate; estimate < openList.size(); estimate++) {
+            Deque<Long> bucket = openList.get(estimate);
+            while (!bucket.isEmpty()) {
+                long current = bucket.pop();
+                openCount--;
+                int depth = depthMap.get(current);
+                // Skip entries superseded by a shorter path to the same position
+                if (depth + Heuristic.estimate(current) != estimate) {
+                    continue;
+                }
+                if (PackedBoard.isWinning(current)) {
+                    return pathTo(parentMap, root, current, Symmetry.IDENTITY);
+                }
+                if (!monitor.expand(current)) {
+                    return pathTo(parentMap, root, monitor.getBestKnown(), Symmetry.IDENTITY);
+                }
+                monitor.observe(openCount, depthMap.size());
+                int count = PackedBoard.getChildren(current, children);
+                for (int i = 0; i < count; i++) {
+                    long child = children[i];
+                    int childEstimate = Heuristic.estimate(child);
+                    Integer childDepth = depthMap.get(child);
+                    if (childEstimate != Integer.MAX_VALUE && (childDepth == null || depth + 1 < childDepth)) {
+                        depthMap.put(child, depth + 1);
+                        parentMap.put(child, current);
+                        addToOpenList(openList, depth + 1 + childEstimate, child);
+                        openCount++;
+                    }
+                }
+            }
+        }
+        return new LinkedList<>();
     }
 
     /**
-     * Performs a breadth-first search on the specified node.
+     * Performs a bidirectional breadth-first search, growing one frontier forwards
+     * from the specified packed board and another backwards from every winning
+     * packed board with the same pieces. Every move can be undone by another move,
+     * so the backward frontier is expanded with the same children as the forward
+     * one. Whole layers are expanded at a time, always on the smaller side, which
+     * guarantees that the first position reached by both searches lies on a
+     * shortest path.
      *
-     * @param root The node from which to stem the search
-     * @return The list of nodes that form the winning path. Should there be no
-     * winning path, this list will be empty.
+     * @param root    The packed board from which to stem the search
+     * @param monitor The monitor of the search
+     * @return The list of packed boards that form the winning path. Should there be
+     * no winning path, this list will be empty. Should the search be stopped, this
+     * is the path to the best known position reached from the root.
      */
-    private static List<Node> breadthFirstSearch(Node root) {
-        if (root.isWinningNode()) {
+    private static List<Long> bidirectionalSearch(long root, SearchMonitor monitor) {
+        if (PackedBoard.isWinning(root)) {
             return new LinkedList<>();
         }
 
-        Queue<Node> queue = new ArrayDeque<>();
-        queue.add(root);
+        // Forward parents lead back to the root, backward parents lead on to a winning board
+        Map<Long, Long> forwardParentMap = new HashMap<>();
+        forwardParentMap.put(root, root);
+        List<Long> forwardFrontier = new ArrayList<>(List.of(root));
 
-        Set<Node> visited = new HashSet<>();
-        Map<Node, Node> parentMap = new HashMap<>();
-        List<Node> winningPathList = new LinkedList<>();
+        Map<Long, Long> backwardParentMap = new HashMap<>();
+        List<Long> backwardFrontier = new ArrayList<>();
+        for (long winningBoard : PackedBoard.getWinningBoards(root)) {
+            backwardParentMap.put(winningBoard, winningBoard);
+            backwardFrontier.add(winningBoard);
+        }
 
-        while (!queue.isEmpty()) {
-            Node currentNode = queue.remove();
-            if (!visited.contains(currentNode)) {
-                visited.add(currentNode);
-                Set<Node> children = currentNode.getChildren();
-                children.removeAll(visited);
-                for (Node child : children) {
-                    parentMap.put(child, currentNode);
-                    if (child.isWinningNode()) {
-                        Node node = child;
-                        while (node != null) {
-                            winningPathList.add(0, node);
-                            node = parentMap.get(node);
+        long[] children = new long[PackedBoard.MAX_MOVES];
+        while (!forwardFrontier.isEmpty() && !backwardFrontier.isEmpty()) {
+            boolean forward = forwardFrontier.size() <= backwardFrontier.size();
+            Map<Long, Long> parentMap = forward ? forwardParentMap : backwardParentMap;
+            Map<Long, Long> otherParentMap = forward ? backwardParentMap : forwardParentMap;
+            List<Long> nextFrontier = new ArrayList<>();
+
+            for (long current : forward ? forwardFrontier : backwardFrontier) {
+                if (!(forward ? monitor.expand(current) : monitor.expand())) {
+                    return pathTo(forwardParentMap, root, monitor.getBestKnown(), Symmetry.IDENTITY);
+                }
+                monitor.observe(forwardFrontier.size() + backwardFrontier.size(),
+                        forwardParentMap.size() + backwardParentMap.size());
+                int count = PackedBoard.getChildren(current, children);
+                for (int i = 0; i < count; i++) {
+                    long child = children[i];
+                    if (parentMap.putIfAbsent(child, current) == null) {
+                        if (otherParentMap.containsKey(child)) {
+                            List<Long> winningPathList = pathTo(forwardParentMap, root, child, Symmetry.IDENTITY);
+                            for (long node = child; node != backwardParentMap.get(node); ) {
+                                node = backwardParentMap.get(node);
+                                winningPathList.add(node);
+                            }
+                            return winningPathList;
                         }
-                        return winningPathList;
-                    } else {
-                        queue.add(child);
+                        nextFrontier.add(child);
                     }
                 }
             }
+
+            if (forward) {
+                forwardFrontier = nextFrontier;
+            } else {
+                backwardFrontier = nextFrontier;
+            }
+        }
+        return new LinkedList<>();
+    }
+
+    /**
+     * Walks the parent pointers of a search back from a packed board to the root.
+     *
+     * @param parentMap  The map from packed boards, or their canonical forms, to
+     *                   their parents
+     * @param root       The packed board from which the search stemmed
+     * @param node       The packed board to walk back from, or PackedBoard.INVALID
+     *                   for none
+     * @param transforms The symmetries under which the parent map is keyed
+     * @return The list of packed boards from the root to the node, empty if there
+     * is no node
+     */
+    static List<Long> pathTo(Map<Long, Long> parentMap, long root, long node, int[] transforms) {
+        List<Long> path = new LinkedList<>();
+        if (node == PackedBoard.INVALID) {
+            return path;
         }
-        return winningPathList;
+        while (node != root) {
+            path.add(0, node);
+            node = parentMap.get(Symmetry.canonical(node, transforms));
+        }
+        path.add(0, root);
+        return path;
+    }
+
+    /**
+     * Adds a packed board to the open list of an A* search.
+     *
+     * @param openList The open list, holding one queue per estimate
+     * @param estimate The estimated length of a solution through the packed board
+     * @param packed   The packed board to add
+     */
+    private static void addToOpenList(List<Deque<Long>> openList, int estimate, long packed) {
+        while (openList.size() <= estimate) {
+            openList.add(new ArrayDeque<>());
+        }
+        openList.get(estimate).push(packed);
+    }
+
+    /**
+     * An enumeration of the strategies the solver can use to search for a solution.
+     * An external breadth-first search keeps its layers on disk and its memory use
+     * within the memory limit of the search (see ExternalSearch), at the cost of
+     * speed.
+     */
+    public enum Strategy {
+        BREADTH_FIRST, A_STAR, BIDIRECTIONAL, PARALLEL_BREADTH_FIRST, EXTERNAL_BREADTH_FIRST
     }
 }
@@ -0,0 +1,199 @@
+package util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import model.Board;
+
+import java.util.Arrays;
+
+/**
+ * This class reduces packed boards to a canonical form under the symmetries of
+ * the board. The brown tiles sit in the four corners and the centre, so the
+ * board looks the same after any of its eight rotations and reflections, and a
+ * position has the same distance to a win as each of its images. Rabbits are
+ * already stored without their colour and foxes are interchangeable, so the
+ * canonical form also ignores which fox slot holds which fox.
+ * <p>
+ * Mushrooms never move and foxes never leave their row or column, so only the
+ * transforms that leave these in place can relate two positions reachable from
+ * one another. Most levels have none besides the identity, in which case there
+ * is nothing to reduce.
+ *
+ * @author Samuel Gamelin
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class Symmetry {
+
+    /**
+     * The number of rotations and reflections of the board, including the
+     * identity.
+     */
+    static final int TRANSFORMS = 8;
+
+    /**
+     * The transforms of a level with no symmetry besides the identity.
+     */
+    static final int[] IDENTITY = {0};
+
+    /**
+     * For every transform, every column of the board and every set of cells in
+     * that column, the mask of the cells they are mapped to.
+     */
+    private static final long[][][] COLUMN_MASKS = new long[TRANSFORMS][Board.SIZE][1 << Board.SIZE];
+
+    /**
+     * For every transform and every encoded fox, the encoded fox it is mapped to.
+     */
+    private static final int[][] FOXES = new int[TRANSFORMS][1 << PackedBoard.FOX_BITS];
+
+    static {
+        for (int transform = 0; transform < TRANSFORMS; transform++) {
+            for (int x = 0; x < Board.SIZE; x++) {
+                for (int column = 1; column < 1 << Board.SIZE; column++) {
+                    int y = Integer.numberOfTrailingZeros(column);
+                    COLUMN_MASKS[transform][x][column] = COLUMN_MASKS[transform][x][column & column - 1] |
+                                                         1L << map(transform, PackedBoard.cell(x, y));
+                }
+            }
+            for (int fox = 1; fox < FOXES[transform].length; fox++) {
+                FOXES[transform][fox] = mapFox(transform, fox);
+            }
+        }
+    }
+
+    /**
+     * Determines the transforms mapping the mushrooms of a packed board onto
+     * themselves and the rows and columns of its foxes onto one another. These are
+     * the only transforms relating positions reachable from the packed board.
+     *
+     * @param packed The packed board
+     * @return The transforms preserving the fixed parts of the packed board,
+     * starting with the identity
+     */
+    static int[] getTransforms(long packed) {
+        long mushrooms = PackedBoard.getMushrooms(packed);
+        long line0 = getLine(PackedBoard.getFox(packed, 0));
+        long line1 = getLine(PackedBoard.getFox(packed, 1));
+        int[] transforms = new int[TRANSFORMS];
+        int count = 0;
+        for (int transform = 0; transform < TRANSFORMS; transform++) {
+            long mapped0 = transform(transform, line0);
+            long mapped1 = transform(transform, line1);
+            if (transform(transform, mushrooms) == mushrooms &&
+                (mapped0 == line0 && mapped1 == line1 || mapped0 == line1 && mapped1 == line0)) {
+                transforms[count++] = transform;
+            }
+        }
+        return Arrays.copyOf(transforms, count);
+    }
+
+    /**
+     * Determines the canonical form of a packed board under the specified
+     * transforms, which is the same for the packed board and all of its images
+     * under those transforms.
+     *
+     * @param packed     The packed board
+     * @param transforms The transforms, as given by getTransforms
+     * @return The canonical form of the packed board, only meant to be compared to
+     * other canonical forms. This is the packed board itself if the identity is
+     * the only transform.
+     */
+    static long canonical(long packed, int[] transforms) {
+        if (transforms.length == 1) {
+            return packed;
+        }
+        long rabbits = PackedBoard.getRabbits(packed);
+        long mushrooms = PackedBoard.getMushrooms(packed);
+        int fox0 = PackedBoard.getFox(packed, 0);
+        int fox1 = PackedBoard.getFox(packed, 1);
+        long canonical = Long.MAX_VALUE;
+        for (int transform : transforms) {
+            int mappedFox0 = FOXES[transform][fox0];
+            int mappedFox1 = FOXES[transform][fox1];
+            long image = transform(transform, rabbits) | transform(transform, mushrooms) << PackedBoard.CELLS |
+                         (long) Math.min(mappedFox0, mappedFox1) << PackedBoard.FOX_SHIFT |
+                         (long) Math.max(mappedFox0, mappedFox1) << PackedBoard.FOX_SHIFT + PackedBoard.FOX_BITS;
+            canonical = Math.min(canonical, image);
+        }
+        return canonical;
+    }
+
+    /**
+     * Maps a mask of cells under a transform.
+     *
+     * @param transform The transform
+     * @param cells     The mask of cells
+     * @return The mask of the cells they are mapped to
+     */
+    static long transform(int transform, long cells) {
+        long[][] columnMasks = COLUMN_MASKS[transform];
+        long mapped = 0;
+        for (int x = 0; x < Board.SIZE; x++) {
+            mapped |= columnMasks[x][(int) (cells >>> Board.SIZE * x) & (1 << Board.SIZE) - 1];
+        }
+        return mapped;
+    }
+
+    /**
+     * Maps a cell under a transform. The first four transforms reflect the board
+     * along neither, one or both of its axes, and the last four also swap the
+     * axes.
+     *
+     * @param transform The transform
+     * @param cell      The cell
+     * @return The cell it is mapped to
+     */
+    static int map(int transform, int cell) {
+        int x = cell / Board.SIZE;
+        int y = cell % Board.SIZE;
+        if ((transform & 1) != 0) {
+            x = Board.SIZE - 1 - x;
+        }
+        if ((transform & 2) != 0) {
+            y = Board.SIZE - 1 - y;
+        }
+        return (transform & 4) != 0 ? PackedBoard.cell(y, x) : PackedBoard.cell(x, y);
+    }
+
+    /**
+     * @param fox The encoded fox, or 0 for none
+     * @return The mask of the row or column the fox slides along, 0 if there is no
+     * fox
+     */
+    private static long getLine(int fox) {
+        if (fox == 0) {
+            return 0;
+        }
+        int cell = (fox - 1) >>> 2;
+        boolean vertical = ((fox - 1) & 2) != 0;
+        long line = 0;
+        for (int i = 0; i < Board.SIZE; i++) {
+            line |= 1L << (vertical ? PackedBoard.cell(cell / Board.SIZE, i) : PackedBoard.cell(i, cell % Board.SIZE));
+        }
+        return line;
+    }
+
+    /**
+     * Maps an encoded fox under a transform, keeping its head on the same half.
+     *
+     * @param transform The transform
+     * @param fox       The encoded fox
+     * @return The encoded fox it is mapped to, or 0 if the fox does not fit on
+     * the board
+     */
+    private static int mapFox(int transform, int fox) {
+        int cell = (fox - 1) >>> 2;
+        boolean vertical = ((fox - 1) & 2) != 0;
+        int other = cell + (vertical ? 1 : Board.SIZE);
+        if (other >= PackedBoard.CELLS || vertical && other % Board.SIZE == 0) {
+            return 0;
+        }
+        int head = ((fox - 1) & 1) != 0 ? other : cell;
+        int mappedCell = map(transform, cell);
+        int mappedOther = map(transform, other);
+        int low = Math.min(mappedCell, mappedOther);
+        boolean mappedVertical = Math.abs(mappedCell - mappedOther) == 1;
+        boolean headHigh = map(transform, head) != low;
+        return 1 + 4 * low + (mappedVertical ? 2 : 0) + (headHigh ? 1 : 0);
+    }
+}
@@ -0,0 +1,363 @@
+package util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import model.Board;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class represents a table of the distance to a win for every position
+ * that can still be won with a given set of pieces. The table is built by a
+ * retrograde breadth-first search which starts from every winning position
+ * and undoes moves, after which any hint is a lookup of the neighbouring
+ * position one move closer to a win.
+ *
+ * @author Samuel Gamelin
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Tablebase {
+
+    /**
+     * A number identifying the start of a serialized tablebase ("RFTB").
+     */
+    private static final int MAGIC = 0x52465442;
+
+    /**
+     * The packed boards in the table, sorted in ascending order.
+     */
+    private final long[] packedBoards;
+
+    /**
+     * The distance to a win of each packed board, at the same index.
+     */
+    private final short[] distances;
+
+    /**
+     * Builds the tablebase covering every position that can be won with the same
+     * pieces as the specified board.
+     *
+     * @param board The board whose pieces are used
+     * @return The tablebase for those pieces, or null if the board cannot be
+     * encoded
+     */
+    public static Tablebase build(Board board) {
+        long packed = PackedBoard.encode(board);
+        return packed == PackedBoard.INVALID ? null : build(packed);
+    }
+
+    /**
+     * Builds the tablebase covering every position that can be won with the same
+     * pieces as the specified packed board.
+     *
+     * @param packed The packed board whose pieces are used
+     * @return The tablebase for those pieces
+     */
+    static Tablebase build(long packed) {
+        return build(PackedBoard.getWinningBoards(packed));
+    }
+
+    /**
+     * Builds the tablebase covering only the positions reachable from the
+     * specified packed board. Since every move can be undone, these are also the
+     * positions from which the packed board can be reached, so the table answers
+     * any hint for a game started from it, whatever moves are made.
+     *
+     * @param packed The packed board whose reachable positions are covered
+     * @return The tablebase for those positions, which is empty if none of them is
+     * a winning position
+     */
+    static Tablebase buildReachable(long packed) {
+        return buildReachable(packed, new SearchMonitor(SearchLimits.unlimited()), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Builds the tablebase covering only the positions reachable from the
+     * specified packed board, within the limits of a search and provided there are
+     * not too many of them.
+     *
+     * @param packed    The packed board whose reachable positions are covered
+     * @param monitor   The monitor of the search, told of every reachable position
+     * @param maxStates The largest number of positions the tablebase may cover
+     * @return The tablebase for those positions, or null if the search was stopped
+     * or more than maxStates positions are reachable
+     */
+    static Tablebase buildReachable(long packed, SearchMonitor monitor, int maxStates) {
+        Set<Long> visited = new HashSet<>();
+        visited.add(packed);
+        Deque<Long> queue = new ArrayDeque<>(List.of(packed));
+        List<Long> winningBoards = new ArrayList<>();
+        long[] children = new long[PackedBoard.MAX_MOVES];
+        while (!queue.isEmpty()) {
+            long current = queue.remove();
+            if (!monitor.expand()) {
+                return null;
+            }
+            monitor.observe(queue.size(), visited.size());
+            if (PackedBoard.isWinning(current)) {
+                winningBoards.add(current);
+            }
+            int count = PackedBoard.getChildren(current, children);
+            for (int i = 0; i < count; i++) {
+                if (visited.add(children[i])) {
+                    if (visited.size() > maxStates) {
+                        return null;
+                    }
+                    queue.add(children[i]);
+                }
+            }
+        }
+        return build(winningBoards.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /**
+     * Builds the tablebase covering every position from which one of the
+     * specified winning packed boards can be reached.
+     *
+     * @param winningBoards The winning packed boards
+     * @return The tablebase for those positions
+     */
+    private static Tablebase build(long[] winningBoards) {
+        Map<Long, Integer> distanceMap = new HashMap<>();
+        List<Long> frontier = new ArrayList<>();
+        for (long winningBoard : winningBoards) {
+            distanceMap.put(winningBoard, 0);
+            frontier.add(winningBoard);
+        }
+
+        // Every move can be undone by another move, so undoing moves from the
+        // winning boards is the same as making them
+        long[] children = new long[PackedBoard.MAX_MOVES];
+        for (int distance = 1; !frontier.isEmpty(); distance++) {
+            if (distance > Short.MAX_VALUE) {
+                throw new IllegalStateException("Distance to a win exceeds " + Short.MAX_VALUE + " moves");
+            }
+            List<Long> nextFrontier = new ArrayList<>();
+            for (long current : frontier) {
+                int count = PackedBoard.getChildren(current, children);
+                for (int i = 0; i < count; i++) {
+                    if (distanceMap.putIfAbsent(children[i], distance) == null) {
+                        nextFrontier.add(children[i]);
+                    }
+                }
+            }
+            frontier = nextFrontier;
+        }
+
+        long[] packedBoards = distanceMap.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        short[] distances = new short[packedBoards.length];
+        for (int i = 0; i < packedBoards.length; i++) {
+            distances[i] = distanceMap.get(packedBoards[i]).shortValue();
+        }
+        return new Tablebase(packedBoards, distances);
+    }
+
+    /**
+     * @return The number of positions in this tablebase
+     */
+    public int size() {
+        return packedBoards.length;
+    }
+
+    /**
+     * @return The greatest distance to a win of any position in this tablebase, -1
+     * if it is empty
+     */
+    int getMaxDistance() {
+        int maxDistance = -1;
+        for (short distance : distances) {
+            maxDistance = Math.max(maxDistance, distance);
+        }
+        return maxDistance;
+    }
+
+    /**
+     * @param distance A distance to a win
+     * @return The packed boards in this tablebase at exactly that distance from a
+     * win, in ascending order
+     */
+    long[] getPackedBoardsAt(int distance) {
+        long[] packedBoardsAt = new long[packedBoards.length];
+        int count = 0;
+        for (int i = 0; i < packedBoards.length; i++) {
+            if (distances[i] == distance) {
+                packedBoardsAt[count++] = packedBoards[i];
+            }
+        }
+        return Arrays.copyOf(packedBoardsAt, count);
+    }
+
+    /**
+     * Looks up the distance to a win of the specified packed board.
+     *
+     * @param packed The packed board
+     * @return The fewest moves needed to win from the packed board, or -1 if the
+     * packed board cannot be won using this tablebase
+     */
+    public int getDistance(long packed) {
+        int index = Arrays.binarySearch(packedBoards, packed);
+        return index < 0 ? -1 : distances[index];
+    }
+
+    /**
+     * Looks up the distance to a win of the specified board.
+     *
+     * @param board The board
+     * @return The fewest moves needed to win from the board, or -1 if the board
+     * cannot be won using this tablebase
+     */
+    public int getDistance(Board board) {
+        long packed = PackedBoard.encode(board);
+        return packed == PackedBoard.INVALID ? -1 : getDistance(packed);
+    }
+
+    /**
+     * Determines the next best move by picking a neighbouring position one move
+     * closer to a win.
+     *
+     * @param board The board whose next best move is to be determined
+     * @return The next best move. Should there be no next best move, or should the
+     * board not be covered by this tablebase, a move object with an invalid
+     * direction is returned.
+     */
+    public Move getNextBestMove(Board board) {
+        long packed = PackedBoard.encode(board);
+        int distance = packed == PackedBoard.INVALID ? -1 : getDistance(packed);
+        if (distance > 0) {
+            for (long child : PackedBoard.getChildren(packed)) {
+                if (getDistance(child) == distance - 1) {
+                    return PackedBoard.getMove(packed, child);
+                }
+            }
+        }
+        return new Move(-1, -1, -1, -1);
+    }
+
+    /**
+     * Writes this tablebase to the specified stream. Packed boards are written in
+     * ascending order as variable-length differences, and the result is
+     * compressed.
+     *
+     * @param outputStream The stream to write to, which is left open
+     * @throws IOException If the tablebase cannot be written
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzipOutputStream));
+        out.writeInt(MAGIC);
+        out.writeInt(packedBoards.length);
+        long previous = 0;
+        for (int i = 0; i < packedBoards.length; i++) {
+            writeVarLong(out, packedBoards[i] - previous);
+            writeVarLong(out, distances[i]);
+            previous = packedBoards[i];
+        }
+        out.flush();
+        gzipOutputStream.finish();
+    }
+
+    /**
+     * Reads a tablebase previously written with write.
+     *
+     * @param inputStream The stream to read from
+     * @return The tablebase that was read
+     * @throws IOException If the stream does not hold a valid tablebase
+     */
+    public static Tablebase read(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(inputStream)));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a tablebase");
+        }
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Invalid tablebase size " + size);
+        }
+        long[] packedBoards = new long[size];
+        short[] distances = new short[size];
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            previous += readVarLong(in);
+            packedBoards[i] = previous;
+            distances[i] = (short) readVarLong(in);
+        }
+        return new Tablebase(packedBoards, distances);
+    }
+
+    /**
+     * Writes a value seven bits at a time, lowest bits first, setting the high bit
+     * of every byte but the last.
+     *
+     * @param out   The stream to write to
+     * @param value The value to write, treated as unsigned
+     * @throws IOException If the value cannot be written
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads a value written with writeVarLong.
+     *
+     * @param in The stream to read from
+     * @return The value that was read
+     * @throws IOException If the value cannot be read
+     */
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length value");
+    }
+
+    /**
+     * Builds and writes the tablebase of every default level in a level file.
+     * Each tablebase is named after its level, for instance "1.tb".
+     *
+     * @param args The path of the level file (such as LevelData.json) followed by
+     *             the directory to write the tablebases to
+     * @throws IOException If the level file cannot be read or a tablebase cannot be
+     *                     written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: Tablebase <level file> <output directory>");
+            System.exit(1);
+        }
+        Path outputDirectory = Files.createDirectories(Paths.get(args[1]));
+        JsonObject levelData;
+        try (Reader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            levelData = JsonParser.parseReader(reader).getAsJsonObject();
+        }
+        for (JsonElement element : levelData.get("defaultLevels").getAsJsonArray()) {
+            String name = element.getAsJsonObject().get("name").getAsString();
+            Tablebase tablebase = build(Board.createBoard(name, element.getAsJsonObject().get("board").getAsString()));
+            if (tablebase == null) {
+                System.err.println("Skipping level " + name + ", which cannot be encoded");
+                continue;
+            }
+            try (OutputStream out = Files.newOutputStream(outputDirectory.resolve(name + ".tb"))) {
+                tablebase.write(out);
+            }
+            System.out.println("Level " + name + ": " + tablebase.size() + " positions");
+        }
+    }
+}
@@ -4,6 +4,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import util.Move;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -96,6 +99,33 @@ class BoardTest {
         assertEquals(board1.toString(), TEST_BOARD_1);
     }
 
+    @Test
+    void testZobristHash() {
+        long initialHash = board1.getZobristHash();
+        assertEquals(initialHash, new Board(board1).getZobristHash());
+        assertEquals(board1.hashCode(), new Board(board1).hashCode());
+
+        // Moving the rabbit gives the same hash as a board built with it there
+        assertTrue(board1.move(new Move(0, 0, 0, 2)));
+        Board moved = Board.createBoard("Anyboard", "X MU RBG X X FHU1 FTU1 X X X X X RBB X X X X X X X X X X X X");
+        assertNotNull(moved);
+        assertEquals(moved.getZobristHash(), board1.getZobristHash());
+        assertNotEquals(initialHash, board1.getZobristHash());
+
+        // Undoing the move restores the hash
+        assertTrue(board1.move(new Move(0, 2, 0, 0)));
+        assertEquals(initialHash, board1.getZobristHash());
+
+        // Removing and replacing a piece restores the hash, overwriting does not
+        Piece mushroom = board1.removePiece(0, 1);
+        assertNotEquals(initialHash, board1.getZobristHash());
+        board1.setPiece(mushroom, 0, 1);
+        assertEquals(initialHash, board1.getZobristHash());
+        board1.setPiece(new Mushroom(), 0, 0);
+        assertNotEquals(initialHash, board1.getZobristHash());
+        assertEquals(0, new Board("Anyboard").getZobristHash());
+    }
+
     @Test
     void testIsWinningState() {
         assertTrue(board1.isInWinningState()); // Game begins in winning state.
@@ -106,4 +136,71 @@ class BoardTest {
         board1.setPiece(new Mushroom(), 0, 0);
         assertFalse(board1.isInWinningState()); // Make sure it is actually checking for rabbits in brown holes.
     }
+
+    @Test
+    void testParseBoard() {
+        assertEquals(TEST_BOARD_1, board1.toString());
+        assertEquals(TEST_BOARD_1, Board.parseBoard("Anyboard",
+                "\n RBG MU X X X\tFHU1 FTU1 X X X X X RBB X X X X X X X X X X X X \n").toString());
+        String allPieces = "X FTD0 FHD0 FTR1 X X X RBW FHR1 X MU X X X X X X RBG X X X X X X RBB";
+        assertEquals(allPieces, Board.parseBoard("Anyboard", allPieces).toString());
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> Board.parseBoard("Anyboard", "RBG MU X X X FHU1 FTU1 X X X X X RBQ X X X X X X X X X X X X"));
+        assertEquals("Tile 12 at index 35: expected a rabbit colour but found 'Q'", e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> Board.parseBoard("Anyboard", "X X X"));
+        assertEquals("Expected 25 tiles but found 3", e.getMessage());
+        e = assertThrows(IllegalArgumentException.class,
+                () -> Board.parseBoard("Anyboard", TEST_BOARD_1.replace("MU X", "MUX X")));
+        assertEquals("Tile 1 at index 6: expected whitespace but found 'X'", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> Board.parseBoard("Anyboard", TEST_BOARD_1 + " X"));
+        e = assertThrows(IllegalArgumentException.class,
+                () -> Board.parseBoard("Anyboard", TEST_BOARD_1.replace("FTU1", "X")));
+        assertEquals("Tile 5 holds a fox head without its tail at (1, 1)", e.getMessage());
+        e = assertThrows(IllegalArgumentException.class,
+                () -> Board.parseBoard("Anyboard", TEST_BOARD_1.replace("FHU1", "X")));
+        assertEquals("Tile 6 holds a fox tail without its head", e.getMessage());
+        assertNull(Board.createBoard("Anyboard", TEST_BOARD_1.replace("FTU1", "FTU0")));
+    }
+
+    @Test
+    void testBoardChangeNotifications() {
+        List<BoardChange> changes = new ArrayList<>();
+        board1.addListener(changes::add);
+
+        // A fox move removes and sets both halves, but is reported once
+        Move foxMove = board1.getPossibleMoves().stream()
+                             .filter(move -> board1.getPiece(move.xStart, move.yStart) instanceof Fox)
+                             .findFirst().orElseThrow();
+        assertTrue(board1.move(foxMove));
+        assertEquals(1, changes.size());
+        assertTrue(changes.get(0).isChanged(foxMove.xStart, foxMove.yStart));
+        assertTrue(changes.get(0).isChanged(foxMove.xEnd, foxMove.yEnd));
+        assertEquals(Math.abs(foxMove.xDistance()) + Math.abs(foxMove.yDistance()) + 2,
+                changes.get(0).getChangedTileCount());
+
+        // Failed moves are not reported
+        assertFalse(board1.move(new Move(1, 2, 3, 4)));
+        assertEquals(1, changes.size());
+
+        // Nested batches are reported once they all end, with every tile they changed
+        board1.batch(() -> {
+            board1.setPiece(new Mushroom(), 3, 3);
+            board1.batch(() -> board1.removePiece(0, 1));
+            assertEquals(1, changes.size());
+        });
+        assertEquals(2, changes.size());
+        assertEquals(2, changes.get(1).getChangedTileCount());
+        assertTrue(changes.get(1).isChanged(3, 3));
+        assertTrue(changes.get(1).isChanged(0, 1));
+        assertFalse(changes.get(1).isChanged(0, 0));
+        assertEquals("BoardChange[(0, 1), (3, 3)]", changes.get(1).toString());
+
+        // Listeners see the board after a removal, and copies have no listeners
+        board1.addListener(change -> assertNull(board1.getPiece(0, 0)));
+        board1.removePiece(0, 0);
+        assertEquals(3, changes.size());
+        assertNotNull(new Board(board1).removePiece(2, 2));
+        assertEquals(3, changes.size());
+    }
 }
@@ -0,0 +1,68 @@
+package resources;
+
+import com.google.gson.JsonParser;
+import model.Board;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the LevelCatalog class.
+ *
+ * @author Samuel Gamelin
+ */
+class LevelCatalogTest {
+
+    private static final String EASY = "X X X X X MU X X X MU RBB X X X RBG X X X X X X X X X X";
+
+    private static final String LEVEL_DATA = "{\"defaultLevels\":[" +
+                                             "{\"name\":1,\"board\":\"" + EASY + "\"}," +
+                                             "{\"name\":\"Bonus\",\"board\":\"" + EASY + "\"}," +
+                                             "{\"name\":3,\"board\":\"Not a board\"}]}";
+
+    @Test
+    void testLookup() {
+        LevelCatalog catalog = new LevelCatalog(JsonParser.parseString(LEVEL_DATA).getAsJsonObject());
+
+        // The level that cannot be read is skipped
+        assertEquals(2, catalog.size());
+        assertEquals("1", catalog.getBoard(1).getName());
+        assertEquals("1", catalog.getBoard("1").getName());
+        assertEquals("Bonus", catalog.getBoard("Bonus").getName());
+        assertEquals(EASY, catalog.getBoard(1).toString());
+        assertNull(catalog.getBoard(3));
+        assertNull(catalog.getBoard("Missing"));
+        assertEquals(0, new LevelCatalog(null).size());
+    }
+
+    @Test
+    void testCopies() {
+        LevelCatalog catalog = new LevelCatalog(JsonParser.parseString(LEVEL_DATA).getAsJsonObject());
+        Board board = catalog.getBoard(1);
+        assertNotSame(board, catalog.getBoard(1));
+
+        // Moving a copy leaves the template untouched
+        assertTrue(board.move(board.getPossibleMoves().get(0)));
+        assertNotEquals(board, catalog.getBoard(1));
+        assertEquals(EASY, catalog.getBoard(1).toString());
+
+        List<Board> boards = catalog.getAllBoards();
+        assertEquals(2, boards.size());
+        assertEquals("Bonus", boards.get(1).getName());
+        assertEquals(catalog.getBoard(1), boards.get(0));
+    }
+
+    @Test
+    void testDefaultCatalog() {
+        LevelCatalog.preload();
+        LevelCatalog catalog = LevelCatalog.getDefault();
+        assertSame(catalog, LevelCatalog.getDefault());
+        assertEquals(20, catalog.size());
+        for (int level = 1; level <= catalog.size(); level++) {
+            assertEquals(String.valueOf(level), catalog.getBoard(level).getName());
+        }
+        assertNull(catalog.getBoard(catalog.size() + 1));
+    }
+}
@@ -0,0 +1,130 @@
+package resources;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import model.Board;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the UserLevelStore class.
+ *
+ * @author Samuel Gamelin
+ */
+class UserLevelStoreTest {
+
+    private static final String EASY = "X X X X X MU X X X MU RBB X X X RBG X X X X X X X X X X";
+
+    @TempDir
+    Path directory;
+
+    private Path levelFile() {
+        return directory.resolve("CustomLevelData.json");
+    }
+
+    private Path journalFile() {
+        return directory.resolve("CustomLevelData.json.journal");
+    }
+
+    @Test
+    void testAddAndRemove() {
+        UserLevelStore store = new UserLevelStore(levelFile());
+        assertTrue(store.getAllBoards().isEmpty());
+        assertTrue(store.add(Board.createBoard("First", EASY)));
+        assertTrue(store.add(Board.createBoard("Second", EASY)));
+        assertFalse(store.add(Board.createBoard("First", EASY)));
+        assertEquals(EASY, store.getBoard("First").toString());
+        assertNotSame(store.getBoard("First"), store.getBoard("First"));
+        assertNull(store.getBoard("Missing"));
+
+        assertTrue(store.remove("First"));
+        assertFalse(store.remove("First"));
+        List<Board> boards = store.getAllBoards();
+        assertEquals(1, boards.size());
+        assertEquals("Second", boards.get(0).getName());
+
+        // Changes only go to the journal until it is compacted
+        assertFalse(Files.exists(levelFile()));
+        assertTrue(Files.exists(journalFile()));
+    }
+
+    @Test
+    void testReopen() throws IOException {
+        UserLevelStore store = new UserLevelStore(levelFile());
+        store.add(Board.createBoard("First", EASY));
+        store.add(Board.createBoard("Second", EASY));
+        store.remove("First");
+        store.add(Board.createBoard("First", EASY));
+
+        UserLevelStore reopened = new UserLevelStore(levelFile());
+        List<Board> boards = reopened.getAllBoards();
+        assertEquals(2, boards.size());
+        assertEquals("Second", boards.get(0).getName());
+        assertEquals("First", boards.get(1).getName());
+
+        // A line cut short by a crash is skipped
+        Files.write(journalFile(), "{\"op\":\"add\",\"na".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        assertEquals(2, new UserLevelStore(levelFile()).getAllBoards().size());
+    }
+
+    @Test
+    void testCompaction() throws IOException {
+        UserLevelStore store = new UserLevelStore(levelFile());
+        for (int i = 0; i < UserLevelStore.COMPACTION_THRESHOLD; i++) {
+            assertTrue(store.add(Board.createBoard("Level " + i, EASY)));
+        }
+        assertFalse(Files.exists(journalFile()));
+        JsonObject levelData = JsonParser.parseString(Files.readString(levelFile())).getAsJsonObject();
+        assertEquals(UserLevelStore.COMPACTION_THRESHOLD, levelData.getAsJsonArray("userLevels").size());
+        assertFalse(Files.exists(directory.resolve("CustomLevelData.json.tmp")));
+
+        // Replaying a journal already merged into the level file changes nothing
+        store.remove("Level 0");
+        Files.copy(journalFile(), directory.resolve("journal"));
+        store.compact();
+        Files.move(directory.resolve("journal"), journalFile());
+        List<Board> boards = new UserLevelStore(levelFile()).getAllBoards();
+        assertEquals(UserLevelStore.COMPACTION_THRESHOLD - 1, boards.size());
+        assertEquals("Level 1", boards.get(0).getName());
+    }
+
+    @Test
+    void testRatings() throws Exception {
+        Files.writeString(levelFile(), "{\"userLevels\":[{\"name\":\"Saved\",\"board\":\"" + EASY + "\"}]}");
+        UserLevelStore store = new UserLevelStore(levelFile());
+        store.whenRated().get();
+        assertEquals(2, store.getDifficulty("Saved").getOptimalLength());
+
+        // Saved levels are rated too, and removed ones forgotten
+        store.add(Board.createBoard("Added", EASY));
+        store.whenRated().get();
+        assertEquals(2, store.getDifficulty("Added").getOptimalLength());
+        store.remove("Saved");
+        assertNull(store.getDifficulty("Saved"));
+        assertNull(store.getDifficulty("Missing"));
+    }
+
+    @Test
+    void testReadsExistingFile() throws IOException {
+        Files.writeString(levelFile(), "{\"userLevels\":[{\"name\":\"Saved\",\"board\":\"" + EASY + "\"}]}");
+        UserLevelStore store = new UserLevelStore(levelFile());
+        assertEquals(EASY, store.getBoard("Saved").toString());
+
+        // An unreadable level file is never overwritten
+        Files.writeString(levelFile(), "{\"userLevels\":[");
+        UserLevelStore broken = new UserLevelStore(levelFile());
+        assertTrue(broken.getAllBoards().isEmpty());
+        assertThrows(IOException.class, broken::compact);
+        assertEquals("{\"userLevels\":[", Files.readString(levelFile()));
+    }
+}
@@ -0,0 +1,76 @@
+package util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import model.Board;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the BatchSolver class.
+ *
+ * @author Samuel Gamelin
+ */
+class BatchSolverTest {
+
+    private static final String LEVELS = "{\"defaultLevels\": [" +
+            "{\"name\": 1, \"board\": \"X X X X X MU X X X MU RBB X X X RBG X X X X X X X X X X\"}," +
+            "{\"name\": 2, \"board\": \"X MU X X X X X X FHU1 FTU1 RBB X X X RBG X X X X X X X X X X\"}]," +
+            "\"userLevels\": [" +
+            "{\"name\": \"Stuck\", \"board\": \"X X RBG X X X X X X X X X X X X X X X X X X X X X X\"}," +
+            "{\"name\": \"Broken\", \"board\": \"X X\"}]}";
+
+    @Test
+    void testReadLevels() {
+        List<JsonObject> levels = BatchSolver.readLevels(new StringReader(LEVELS));
+        assertEquals(4, levels.size());
+        assertEquals("1", levels.get(0).get("name").getAsString());
+        assertEquals("Broken", levels.get(3).get("name").getAsString());
+    }
+
+    @Test
+    void testSolve() {
+        List<JsonObject> levels = BatchSolver.readLevels(new StringReader(LEVELS));
+        JsonObject solved = BatchSolver.solve(levels.get(1), Solver.Strategy.BREADTH_FIRST, null);
+        assertEquals(SearchResult.Status.SOLVED.name(), solved.get("status").getAsString());
+        assertEquals(3, solved.get("moves").getAsInt());
+        assertTrue(solved.get("expandedNodes").getAsLong() > 0);
+
+        // Replaying the solution wins the level
+        Board board = Board.createBoard("2", levels.get(1).get("board").getAsString());
+        for (var element : solved.getAsJsonArray("solution")) {
+            JsonArray move = element.getAsJsonArray();
+            assertTrue(board.move(new Move(move.get(0).getAsInt(), move.get(1).getAsInt(), move.get(2).getAsInt(),
+                    move.get(3).getAsInt())));
+        }
+        assertTrue(board.isInWinningState());
+
+        JsonObject stuck = BatchSolver.solve(levels.get(2), Solver.Strategy.A_STAR, null);
+        assertEquals(SearchResult.Status.UNSOLVABLE.name(), stuck.get("status").getAsString());
+        assertEquals(0, stuck.get("moves").getAsInt());
+
+        JsonObject broken = BatchSolver.solve(levels.get(3), Solver.Strategy.BREADTH_FIRST, null);
+        assertEquals(BatchSolver.INVALID, broken.get("status").getAsString());
+        assertTrue(broken.has("error"));
+    }
+
+    @Test
+    void testSolveAll() throws IOException {
+        StringWriter writer = new StringWriter();
+        List<JsonObject> levels = BatchSolver.readLevels(new StringReader(LEVELS));
+        assertEquals(2, BatchSolver.solveAll(levels, Solver.Strategy.BREADTH_FIRST, null, 3, writer));
+
+        // One line per level, in the order of the file
+        String[] lines = writer.toString().split(System.lineSeparator());
+        assertEquals(4, lines.length);
+        assertEquals(2, JsonParser.parseString(lines[0]).getAsJsonObject().get("moves").getAsInt());
+        assertEquals("Stuck", JsonParser.parseString(lines[2]).getAsJsonObject().get("name").getAsString());
+    }
+}
@@ -0,0 +1,80 @@
+package util;
+
+import model.Board;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Difficulty class.
+ *
+ * @author Samuel Gamelin
+ */
+class DifficultyTest {
+
+    private static final String EASY = "X X X X X MU X X X MU RBB X X X RBG X X X X X X X X X X";
+
+    private static final String HARD = "X FTR1 X MU X X FHR1 X X X X X MU X X MU RBW X X RBG X X RBB X X";
+
+    @Test
+    void testEasyBoard() {
+        Difficulty difficulty = Difficulty.of(Board.createBoard("Anyboard", EASY));
+        assertEquals(2, difficulty.getOptimalLength());
+        assertEquals(4, difficulty.getReachableStates());
+        assertEquals(2, difficulty.getOptimalSolutions());
+        assertEquals(0, difficulty.getDeadEndStates());
+        assertEquals(2.0, difficulty.getBranchingFactor());
+        assertEquals(Difficulty.Rating.EASY, difficulty.getRating());
+    }
+
+    @Test
+    void testHardBoard() {
+        Difficulty easy = Difficulty.of(Board.createBoard("Anyboard", EASY));
+        Difficulty hard = Difficulty.of(Board.createBoard("Anyboard", HARD));
+
+        // The optimal length matches the solution found by the solver
+        assertEquals(82, hard.getOptimalLength());
+        assertTrue(hard.getReachableStates() > easy.getReachableStates());
+        assertTrue(hard.getDeadEndStates() > 0);
+        assertTrue(hard.getScore() > easy.getScore());
+        assertEquals(Difficulty.Rating.EXPERT, hard.getRating());
+    }
+
+    @Test
+    void testWithinLimits() {
+        Board hard = Board.createBoard("Anyboard", HARD);
+        assertNull(Difficulty.of(hard, new SearchLimits(null, 100)));
+        SearchLimits cancelled = SearchLimits.unlimited();
+        cancelled.cancel();
+        assertNull(Difficulty.of(hard, cancelled));
+
+        // Limits that are not reached change nothing
+        Difficulty easy = Difficulty.of(Board.createBoard("Anyboard", EASY), new SearchLimits(null, 100));
+        assertEquals(Difficulty.of(Board.createBoard("Anyboard", EASY)).toString(), easy.toString());
+    }
+
+    @Test
+    void testUnsolvableBoard() {
+        Difficulty unsolvable = Difficulty.of(Board.createBoard("Anyboard",
+                "X X RBG X X X X X X X X X X X X X X X X X X X X X X"));
+        assertEquals(-1, unsolvable.getOptimalLength());
+        assertEquals(0, unsolvable.getOptimalSolutions());
+        assertEquals(Integer.MAX_VALUE, unsolvable.getScore());
+        assertEquals(Difficulty.Rating.UNSOLVABLE, unsolvable.getRating());
+
+        // A board that is already won needs no moves
+        Difficulty won = Difficulty.of(Board.createBoard("Anyboard",
+                "RBG X X X X X X X X X X X X X X X X X X X X X X X X"));
+        assertEquals(0, won.getOptimalLength());
+        assertEquals(1, won.getOptimalSolutions());
+    }
+
+    @Test
+    void testRating() {
+        assertEquals(Difficulty.Rating.EASY, Difficulty.Rating.of(0));
+        assertEquals(Difficulty.Rating.MEDIUM, Difficulty.Rating.of(30));
+        assertEquals(Difficulty.Rating.HARD, Difficulty.Rating.of(99));
+        assertEquals(Difficulty.Rating.EXPERT, Difficulty.Rating.of(100));
+        assertEquals(Difficulty.Rating.UNSOLVABLE, Difficulty.Rating.of(Integer.MAX_VALUE));
+    }
+}
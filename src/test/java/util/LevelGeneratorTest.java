@@ -0,0 +1,59 @@
+package util;
+
+import model.Board;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the LevelGenerator class.
+ *
+ * @author Samuel Gamelin
+ */
+class LevelGeneratorTest {
+
+    @Test
+    void testGenerate() {
+        LevelGenerator generator = new LevelGenerator(2, 1, 2, Difficulty.Rating.MEDIUM);
+        List<Board> levels = generator.generate(3, 42, 500);
+        assertEquals(3, levels.size());
+        for (Board level : levels) {
+            // Levels survive the string format and have the requested pieces and rating
+            Board parsed = Board.createBoard(level.getName(), level.toString());
+            long packed = PackedBoard.encode(parsed);
+            assertEquals(2, Long.bitCount(PackedBoard.getRabbits(packed)));
+            assertEquals(2, Long.bitCount(PackedBoard.getMushrooms(packed)));
+            assertFalse(parsed.isInWinningState());
+            Difficulty difficulty = Difficulty.of(parsed);
+            assertEquals(Difficulty.Rating.MEDIUM, difficulty.getRating());
+
+            // The solver agrees that the level can be solved in that many moves
+            int moves = 0;
+            Solver solver = new Solver(Solver.Strategy.BREADTH_FIRST, null, Solver.DEFAULT_CAPACITY);
+            while (!parsed.isInWinningState()) {
+                assertTrue(parsed.move(solver.getNextBestMove(parsed)));
+                moves++;
+            }
+            assertEquals(difficulty.getOptimalLength(), moves);
+        }
+        assertEquals("Generated 1", levels.get(0).getName());
+        assertNotEquals(levels.get(0), levels.get(1));
+    }
+
+    @Test
+    void testSameSeed() {
+        LevelGenerator generator = new LevelGenerator(1, 0, 3, Difficulty.Rating.EASY);
+        assertEquals(generator.generate(5, 7, 500).toString(), generator.generate(5, 7, 500).toString());
+    }
+
+    @Test
+    void testInvalidPieces() {
+        assertThrows(IllegalArgumentException.class, () -> new LevelGenerator(0, 1, 1, Difficulty.Rating.EASY));
+        assertThrows(IllegalArgumentException.class, () -> new LevelGenerator(1, 3, 1, Difficulty.Rating.EASY));
+        assertThrows(IllegalArgumentException.class, () -> new LevelGenerator(1, 2, 17, Difficulty.Rating.EASY));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LevelGenerator(1, 1, 1, Difficulty.Rating.UNSOLVABLE));
+    }
+}
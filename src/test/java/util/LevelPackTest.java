@@ -0,0 +1,110 @@
+package util;
+
+import com.google.gson.JsonObject;
+import model.Board;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the LevelPack class.
+ *
+ * @author Samuel Gamelin
+ */
+class LevelPackTest {
+
+    private static final String COLOURED = "X X RBW X X X MU X X X FHU0 FTU0 RBG X X X X X RBB X X X X X X";
+
+    @TempDir
+    Path directory;
+
+    private static List<Board> defaultLevels() throws IOException {
+        try (InputStreamReader reader = new InputStreamReader(Objects.requireNonNull(
+                LevelPackTest.class.getClassLoader().getResourceAsStream("levels/LevelData.json")),
+                StandardCharsets.UTF_8)) {
+            List<Board> boards = new ArrayList<>();
+            for (JsonObject level : BatchSolver.readLevels(reader)) {
+                boards.add(Board.createBoard(level.get("name").getAsString(), level.get("board").getAsString()));
+            }
+            return boards;
+        }
+    }
+
+    @Test
+    void testDefaultLevels() throws IOException {
+        List<Board> boards = defaultLevels();
+        Path path = directory.resolve("levels.pack");
+        try (OutputStream out = Files.newOutputStream(path)) {
+            LevelPack.write(boards, out);
+        }
+
+        // The default levels are numbered in order, so no names are written
+        assertEquals(12 + boards.size() * LevelPack.LEVEL_SIZE, Files.size(path));
+        LevelPack pack = LevelPack.open(path);
+        assertEquals(boards.size(), pack.size());
+        for (int i = 0; i < boards.size(); i++) {
+            assertEquals(boards.get(i).getName(), pack.getName(i));
+            assertEquals(boards.get(i).toString(), pack.getBoard(i).toString());
+            assertEquals(PackedBoard.encode(boards.get(i)), pack.getPackedBoard(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> pack.getBoard(boards.size()));
+    }
+
+    @Test
+    void testNamesAndColours() throws IOException {
+        Board coloured = Board.createBoard("Ünïcode", COLOURED);
+        Board other = Board.createBoard("1", COLOURED);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LevelPack.write(List.of(coloured, other), out);
+
+        LevelPack pack = new LevelPack(ByteBuffer.wrap(out.toByteArray()));
+        assertEquals(2, pack.size());
+        assertEquals("Ünïcode", pack.getName(0));
+        assertEquals("1", pack.getName(1));
+        assertEquals(COLOURED, pack.getBoard(0).toString());
+        assertEquals("Ünïcode", pack.getBoard(0).getName());
+    }
+
+    @Test
+    void testInvalidPacks() throws IOException {
+        assertThrows(IOException.class, () -> new LevelPack(ByteBuffer.wrap(new byte[]{1, 2, 3})));
+        assertThrows(IllegalArgumentException.class, () -> LevelPack.write(
+                List.of(Board.createBoard("Five", "RBB RBB RBB RBB RBB X X X X X X X X X X X X X X X X X X X X")),
+                new ByteArrayOutputStream()));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LevelPack.write(defaultLevels(), out);
+        byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 1);
+        assertThrows(IOException.class, () -> new LevelPack(ByteBuffer.wrap(truncated)));
+
+        // Name offsets which are out of order, out of range or past the end of a
+        // truncated pack are rejected up front rather than when reading a name
+        ByteArrayOutputStream named = new ByteArrayOutputStream();
+        LevelPack.write(List.of(Board.createBoard("First", COLOURED), Board.createBoard("Second", COLOURED)), named);
+        int offsets = 12 + 2 * LevelPack.LEVEL_SIZE;
+        assertEquals(2, new LevelPack(ByteBuffer.wrap(named.toByteArray())).size());
+        ByteBuffer decreasing = ByteBuffer.wrap(named.toByteArray()).putInt(offsets + Integer.BYTES, 8);
+        decreasing.putInt(offsets + 2 * Integer.BYTES, 6);
+        assertThrows(IOException.class, () -> new LevelPack(decreasing));
+        ByteBuffer negative = ByteBuffer.wrap(named.toByteArray()).putInt(offsets, -1);
+        assertThrows(IOException.class, () -> new LevelPack(negative));
+        ByteBuffer outOfRange = ByteBuffer.wrap(named.toByteArray()).putInt(offsets + Integer.BYTES, 1000);
+        assertThrows(IOException.class, () -> new LevelPack(outOfRange));
+        byte[] truncatedNames = Arrays.copyOf(named.toByteArray(), named.size() - 1);
+        assertThrows(IOException.class, () -> new LevelPack(ByteBuffer.wrap(truncatedNames)));
+    }
+}
@@ -0,0 +1,73 @@
+package util;
+
+import model.Board;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Node class.
+ *
+ * @author Samuel Gamelin
+ */
+class NodeTest {
+
+    private Board board;
+
+    private Node node;
+
+    @BeforeEach
+    void setUp() {
+        String BOARD_DATA = "X X X X X MU X X X MU RBB X X X RBG X X X X X X X X X X";
+        board = Board.createBoard("Anyboard", BOARD_DATA);
+        node = new Node(board);
+    }
+
+    @Test
+    void testConstructor() {
+        assertEquals(node, new Node(new Board(board)));
+        assertEquals(node.hashCode(), new Node(board).hashCode());
+        assertThrows(IllegalArgumentException.class, () -> new Node((Board) null));
+        assertThrows(IllegalArgumentException.class, () -> new Node(PackedBoard.INVALID));
+    }
+
+    @Test
+    void testGetChildren() {
+        Set<Node> children = node.getChildren();
+        assertEquals(board.getPossibleMoves().size(), children.size());
+        for (Move move : board.getPossibleMoves()) {
+            Board moved = new Board(board);
+            assertTrue(moved.move(move));
+            assertTrue(children.contains(new Node(moved)));
+        }
+    }
+
+    @Test
+    void testMove() {
+        // The node itself is left unchanged
+        Node moved = node.move(new Move(2, 0, 0, 0));
+        assertNotNull(moved);
+        assertNotEquals(node, moved);
+        assertEquals(new Node(board), node);
+        assertNull(node.move(new Move(2, 0, 2, 1)));
+
+        Move move = node.getMoveTo(moved);
+        assertEquals(2, move.xStart);
+        assertEquals(0, move.yStart);
+        assertEquals(0, move.xEnd);
+        assertEquals(0, move.yEnd);
+        assertEquals(Move.MoveDirection.INVALID, node.getMoveTo(node).direction());
+    }
+
+    @Test
+    void testIsWinningNode() {
+        assertFalse(node.isWinningNode());
+        Node won = node.move(new Move(2, 0, 0, 0)).move(new Move(2, 4, 0, 4));
+        assertTrue(won.isWinningNode());
+        // The winning node is two moves away, so no single move leads to it
+        assertEquals(Move.MoveDirection.INVALID, node.getMoveTo(won).direction());
+    }
+}
@@ -0,0 +1,191 @@
+package util;
+
+import model.Board;
+import model.Fox;
+import model.Rabbit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the PackedBoard class.
+ *
+ * @author Samuel Gamelin
+ */
+class PackedBoardTest {
+
+    private Board board;
+
+    @BeforeEach
+    void setUp() {
+        String BOARD_DATA = "X X X X X FHU1 FTU1 X X RBB X X X X MU RBW MU X FHL0 X X X RBG FTL0 X";
+        board = Board.createBoard("Anyboard", BOARD_DATA);
+    }
+
+    @Test
+    void testEncode() {
+        long packed = PackedBoard.encode(board);
+        assertNotEquals(PackedBoard.INVALID, packed);
+        assertEquals(packed, PackedBoard.encode(new Board(board)));
+        assertEquals(3, Long.bitCount(PackedBoard.getRabbits(packed)));
+        assertEquals(2, Long.bitCount(PackedBoard.getMushrooms(packed)));
+        assertEquals(9, Long.bitCount(PackedBoard.getOccupied(packed)));
+        assertEquals(PackedBoard.INVALID, PackedBoard.encode(null));
+
+        // Rabbit colour does not matter
+        Board recoloured = new Board(board);
+        recoloured.setPiece(new Rabbit(Rabbit.RabbitColour.GRAY), 1, 4);
+        assertEquals(packed, PackedBoard.encode(recoloured));
+
+        // A third fox cannot be encoded
+        Fox fox = new Fox(Fox.Direction.UP, true);
+        recoloured.setPiece(fox, 0, 0);
+        recoloured.setPiece(fox.getOtherHalf(), 0, 1);
+        assertEquals(PackedBoard.INVALID, PackedBoard.encode(recoloured));
+    }
+
+    @Test
+    void testDecode() {
+        long packed = PackedBoard.encode(board);
+        Board decoded = PackedBoard.decode(packed, "Decoded");
+        assertEquals("Decoded", decoded.getName());
+        assertEquals(packed, PackedBoard.encode(decoded));
+
+        // Every fox and its halves survive a round trip through the string format,
+        // including a fox in the second slot on its own
+        for (long child : PackedBoard.getChildren(packed)) {
+            assertEquals(child, PackedBoard.encode(Board.createBoard("Anyboard",
+                    PackedBoard.decode(child, "Anyboard").toString())));
+        }
+        Board lone = Board.createBoard("Anyboard", "X X X X X FHU1 FTU1 X X X X X X X X X X X X X X X X X X");
+        assertEquals(PackedBoard.encode(lone), PackedBoard.encode(PackedBoard.decode(PackedBoard.encode(lone), "")));
+    }
+
+    @Test
+    void testIsWinning() {
+        assertFalse(PackedBoard.isWinning(PackedBoard.encode(board)));
+        assertFalse(PackedBoard.isWinning(PackedBoard.encode(new Board("Anyboard"))));
+        Board winning = Board.createBoard("Anyboard", "RBG MU X X X FHU1 FTU1 X X X X X RBB X X X X X X X X X X X X");
+        assertTrue(PackedBoard.isWinning(PackedBoard.encode(winning)));
+    }
+
+    @Test
+    void testChildrenMatchBoard() {
+        // Every position reachable from the board must have the same children and
+        // moves whether it is explored as a Board or as a packed board
+        Map<Long, Board> boards = new HashMap<>();
+        Queue<Board> queue = new ArrayDeque<>();
+        boards.put(PackedBoard.encode(board), board);
+        queue.add(board);
+
+        while (!queue.isEmpty()) {
+            Board current = queue.remove();
+            long packed = PackedBoard.encode(current);
+            assertEquals(current.isInWinningState(), PackedBoard.isWinning(packed));
+
+            Set<Long> expected = new HashSet<>();
+            for (Move move : current.getPossibleMoves()) {
+                Board child = new Board(current);
+                assertTrue(child.move(move));
+                long packedChild = PackedBoard.encode(child);
+                expected.add(packedChild);
+                if (boards.putIfAbsent(packedChild, child) == null) {
+                    queue.add(child);
+                }
+            }
+
+            long[] children = PackedBoard.getChildren(packed);
+            assertEquals(expected.size(), children.length);
+            for (long child : children) {
+                assertTrue(expected.contains(child));
+                Board moved = new Board(current);
+                assertTrue(moved.move(PackedBoard.getMove(packed, child)));
+                assertEquals(child, PackedBoard.encode(moved));
+            }
+
+            // Any move between two cells must succeed on the packed board exactly when
+            // it succeeds on the Board
+            for (int from = 0; from < PackedBoard.CELLS; from++) {
+                for (int to = 0; to < PackedBoard.CELLS; to++) {
+                    Move move = new Move(from / Board.SIZE, from % Board.SIZE, to / Board.SIZE, to % Board.SIZE);
+                    Board moved = new Board(current);
+                    long expectedChild = moved.move(move) ? PackedBoard.encode(moved) : PackedBoard.INVALID;
+                    assertEquals(expectedChild, PackedBoard.applyMove(packed, move));
+                }
+            }
+        }
+        assertTrue(boards.size() > 1);
+    }
+
+    @Test
+    void testGetWinningBoards() {
+        long packed = PackedBoard.encode(board);
+        long[] winningBoards = PackedBoard.getWinningBoards(packed);
+        // Three rabbits on five brown tiles, with the foxes each placed in one of four positions
+        assertTrue(winningBoards.length > 0);
+        assertTrue(winningBoards.length <= 10 * 4 * 4);
+        for (long winningBoard : winningBoards) {
+            assertTrue(PackedBoard.isWinning(winningBoard));
+            assertEquals(PackedBoard.getMushrooms(packed), PackedBoard.getMushrooms(winningBoard));
+            assertEquals(9, Long.bitCount(PackedBoard.getOccupied(winningBoard)));
+        }
+        assertEquals(0, PackedBoard.getWinningBoards(PackedBoard.encode(new Board("Anyboard"))).length);
+    }
+
+    @Test
+    void testGetChildrenIntoArray() {
+        long packed = PackedBoard.encode(board);
+        long[] children = new long[PackedBoard.MAX_MOVES];
+        int count = PackedBoard.getChildren(packed, children);
+        assertArrayEquals(PackedBoard.getChildren(packed), Arrays.copyOf(children, count));
+        assertEquals(0, PackedBoard.getChildren(PackedBoard.encode(new Board("Anyboard")), children));
+    }
+
+    @Test
+    void testApplyMove() {
+        long packed = PackedBoard.encode(board);
+        assertEquals(PackedBoard.INVALID, PackedBoard.applyMove(packed, null));
+        assertEquals(PackedBoard.INVALID, PackedBoard.applyMove(packed, new Move(4, 2, 4, 5)));
+        assertEquals(PackedBoard.INVALID, PackedBoard.applyMove(packed, new Move(-1, -1, -1, -1)));
+        long moved = PackedBoard.applyMove(packed, new Move(4, 2, 4, 4));
+        assertNotEquals(PackedBoard.INVALID, moved);
+        assertEquals(packed, PackedBoard.applyMove(moved, new Move(4, 4, 4, 2)));
+    }
+
+    @Test
+    void testGetMove() {
+        long packed = PackedBoard.encode(board);
+        assertEquals(Move.MoveDirection.INVALID, PackedBoard.getMove(packed, packed).direction());
+        Board moved = new Board(board);
+        assertTrue(moved.move(new Move(4, 2, 4, 4)));
+        Move move = PackedBoard.getMove(packed, PackedBoard.encode(moved));
+        assertEquals(4, move.xStart);
+        assertEquals(2, move.yStart);
+        assertEquals(4, move.xEnd);
+        assertEquals(4, move.yEnd);
+    }
+
+    @Test
+    void testGetLevelKey() {
+        // Every reachable position belongs to the same level
+        long packed = PackedBoard.encode(board);
+        long key = PackedBoard.getLevelKey(packed);
+        Set<Long> visited = new HashSet<>(List.of(packed));
+        Queue<Long> queue = new ArrayDeque<>(visited);
+        while (!queue.isEmpty()) {
+            long current = queue.remove();
+            assertEquals(key, PackedBoard.getLevelKey(current));
+            for (long child : PackedBoard.getChildren(current)) {
+                if (visited.add(child)) {
+                    queue.add(child);
+                }
+            }
+        }
+        assertTrue(visited.size() > 1);
+        Board other = Board.createBoard("Anyboard", "X X X X X MU X X X MU RBB X X X RBG X X X X X X X X X X");
+        assertNotEquals(key, PackedBoard.getLevelKey(PackedBoard.encode(other)));
+    }
+}
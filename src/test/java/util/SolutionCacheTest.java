@@ -0,0 +1,111 @@
+package util;
+
+import model.Board;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SolutionCache class.
+ *
+ * @author Samuel Gamelin
+ */
+class SolutionCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private Path path;
+
+    private SolutionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        path = directory.resolve("SolutionCache.txt");
+        cache = new SolutionCache(path);
+    }
+
+    @Test
+    void testAddPath() {
+        assertEquals(PackedBoard.INVALID, cache.getNext(1L));
+        cache.addPath(List.of(1L, 2L, -3L));
+        assertEquals(2L, cache.getNext(1L));
+        assertEquals(-3L, cache.getNext(2L));
+        assertEquals(PackedBoard.INVALID, cache.getNext(-3L));
+        assertEquals(2, cache.size());
+
+        // Entries survive a restart
+        SolutionCache reloaded = new SolutionCache(path);
+        assertEquals(2L, reloaded.getNext(1L));
+        assertEquals(-3L, reloaded.getNext(2L));
+    }
+
+    @Test
+    void testMalformedEntries() throws Exception {
+        Files.writeString(path, "not an entry\n1 2\nzz 3\n");
+        assertEquals(1, cache.size());
+        assertEquals(2L, cache.getNext(1L));
+    }
+
+    @Test
+    void testEviction() throws Exception {
+        SolutionCache bounded = new SolutionCache(path, 8);
+        List<Long> path = new ArrayList<>();
+        for (long i = 0; i < 10; i++) {
+            path.add(i);
+        }
+        bounded.addPath(path);
+        // The oldest entries are evicted and the file holds the rest
+        assertEquals(6, bounded.size());
+        assertEquals(PackedBoard.INVALID, bounded.getNext(2L));
+        assertEquals(4L, bounded.getNext(3L));
+        assertEquals(6, Files.readAllLines(this.path).size());
+        assertEquals(4L, new SolutionCache(this.path, 8).getNext(3L));
+    }
+
+    @Test
+    void testCompaction() throws Exception {
+        Files.writeString(path, "1 2\n".repeat(SolutionCache.COMPACTION_THRESHOLD + 1) + "2 3\n");
+        assertEquals(2, cache.size());
+        assertEquals(List.of("1 2", "2 3"), Files.readAllLines(path));
+
+        cache.remove(1L);
+        assertEquals(PackedBoard.INVALID, cache.getNext(1L));
+        assertEquals(3L, cache.getNext(2L));
+    }
+
+    @Test
+    void testSolverIgnoresIllegalEntries() throws Exception {
+        Board board = Board.createBoard("Anyboard", "X X X X X MU X X X MU RBB X X X RBG X X X X X X X X X X");
+        long packed = PackedBoard.encode(board);
+        Files.writeString(path, Long.toHexString(packed) + " " + Long.toHexString(packed) + "\n");
+        Solver solver = new Solver(Solver.Strategy.BREADTH_FIRST, cache, Solver.DEFAULT_CAPACITY);
+        SearchResult result = solver.solve(board, SearchLimits.unlimited());
+        assertEquals(SearchStatistics.Source.SEARCH, result.getStatistics().getSource());
+        assertTrue(board.move(result.getMove()));
+        // The bad entry has been replaced by the one found
+        assertEquals(PackedBoard.encode(board), cache.getNext(packed));
+    }
+
+    @Test
+    void testSolverUsesCache() {
+        Board board = Board.createBoard("Anyboard", "X X X X X MU X X X MU RBB X X X RBG X X X X X X X X X X");
+        Solver solver = new Solver(Solver.Strategy.BREADTH_FIRST, cache, Solver.DEFAULT_CAPACITY);
+        board.move(solver.getNextBestMove(board));
+        // Both positions on the two move solution have been cached
+        assertEquals(2, cache.size());
+
+        // A fresh cache reading the same file can finish the board on its own
+        SolutionCache reloaded = new SolutionCache(path);
+        long packed = PackedBoard.encode(board);
+        assertTrue(board.move(PackedBoard.getMove(packed, reloaded.getNext(packed))));
+        assertTrue(board.isInWinningState());
+    }
+}
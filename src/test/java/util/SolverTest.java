@@ -2,8 +2,24 @@ package util;
 
 import model.Board;
 import org.junit.jupiter.api.BeforeEach;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -17,6 +33,8 @@ class SolverTest {
 
     private Move noMove;
 
+    private Solver solver;
+
     @BeforeEach
     void setUp() {
         String EASY = "X X X X X MU X X X MU RBB X X X RBG X X X X X X X X X X";
@@ -28,22 +46,23 @@ class SolverTest {
         String UNSOLVABLE = "X X RBG X X X X X X X X X X X X X X X X X X X X X X";
         unsolvableBoard = Board.createBoard("Anyboard", UNSOLVABLE);
         noMove = new Move(-1, -1, -1, -1);
+        solver = new Solver();
     }
 
     @Test
     void testGetNextBestMove() {
         // The Solver should find the next best move since this board is solvable
-        assertNotSame(Solver.getNextBestMove(normalBoard).xStart, noMove.xStart);
-        // This board is solvable, and has an 84 move optimal solution (our most complex
+        assertNotSame(solver.getNextBestMove(normalBoard).xStart, noMove.xStart);
+        // This board is solvable, and has an 82 move optimal solution (our most complex
         // puzzle solver-wise)
         // The Solver should find a winning path.
-        assertNotSame(Solver.getNextBestMove(hardBoard).xStart, noMove.xStart);
+        assertNotSame(solver.getNextBestMove(hardBoard).xStart, noMove.xStart);
         // Passing in null should return the move (-1, -1, -1, -1), since an optimal
         // move can't be found.
-        assertSame(Solver.getNextBestMove(null).xStart, noMove.xStart);
+        assertSame(solver.getNextBestMove(null).xStart, noMove.xStart);
         // Likewise, passing in a Board with no solution should also return the move
         // (-1, -1, -1, -1).
-        assertSame(Solver.getNextBestMove(unsolvableBoard).xStart, noMove.xStart);
+        assertSame(solver.getNextBestMove(unsolvableBoard).xStart, noMove.xStart);
     }
 
     @Test
@@ -58,7 +77,7 @@ class SolverTest {
         // not in a solved state after each move.
         for (int i = 0; i < 2; i++) {
             assertFalse(normalBoard.isInWinningState());
-            easyBoard.move(Solver.getNextBestMove(easyBoard));
+            easyBoard.move(solver.getNextBestMove(easyBoard));
         }
 
         // The board should now be solved
@@ -77,10 +96,321 @@ class SolverTest {
         // not in a solved state after each move.
         for (int i = 0; i < 6; i++) {
             assertFalse(normalBoard.isInWinningState());
-            normalBoard.move(Solver.getNextBestMove(normalBoard));
+            normalBoard.move(solver.getNextBestMove(normalBoard));
         }
 
         // The board should now be solved.
         assertTrue(normalBoard.isInWinningState());
     }
+
+    @Test
+    void testSolveWithAStar() {
+        /*
+         * A* must find solutions just as short as the breadth-first search. The hard
+         * board has an optimal 82 move solution.
+         */
+        int moves = 0;
+        while (!hardBoard.isInWinningState()) {
+            assertTrue(hardBoard.move(solver.getNextBestMove(hardBoard, Solver.Strategy.A_STAR)));
+            moves++;
+        }
+        assertEquals(82, moves);
+
+        // Boards without a solution are reported the same way
+        assertSame(solver.getNextBestMove(unsolvableBoard, Solver.Strategy.A_STAR).xStart, noMove.xStart);
+    }
+
+    @Test
+    void testSolveBidirectionally() {
+        // Meeting in the middle must still give the optimal six move solution
+        for (int i = 0; i < 6; i++) {
+            assertFalse(normalBoard.isInWinningState());
+            assertTrue(normalBoard.move(solver.getNextBestMove(normalBoard, Solver.Strategy.BIDIRECTIONAL)));
+        }
+        assertTrue(normalBoard.isInWinningState());
+
+        assertSame(solver.getNextBestMove(unsolvableBoard, Solver.Strategy.BIDIRECTIONAL).xStart, noMove.xStart);
+    }
+
+    @Test
+    void testSolveInParallel() {
+        // Expanding each layer in parallel must still give the optimal 82 move solution
+        int moves = 0;
+        while (!hardBoard.isInWinningState()) {
+            assertTrue(hardBoard.move(solver.getNextBestMove(hardBoard, Solver.Strategy.PARALLEL_BREADTH_FIRST)));
+            moves++;
+        }
+        assertEquals(82, moves);
+
+        assertSame(solver.getNextBestMove(unsolvableBoard, Solver.Strategy.PARALLEL_BREADTH_FIRST).xStart,
+                noMove.xStart);
+    }
+
+    @Test
+    void testSolveExternally() {
+        // A memory limit of a few children spills every layer to many runs, and the
+        // solution must still be the optimal 82 move one
+        SearchLimits limits = new SearchLimits(null, Long.MAX_VALUE, 1);
+        int moves = 0;
+        while (!hardBoard.isInWinningState()) {
+            SearchResult result = new Solver(Solver.Strategy.EXTERNAL_BREADTH_FIRST, null, Solver.DEFAULT_CAPACITY)
+                    .solve(hardBoard, limits);
+            assertEquals(SearchResult.Status.SOLVED, result.getStatus());
+            assertTrue(hardBoard.move(result.getMove()));
+            moves++;
+        }
+        assertEquals(82, moves);
+
+        assertSame(solver.getNextBestMove(unsolvableBoard, Solver.Strategy.EXTERNAL_BREADTH_FIRST).xStart,
+                noMove.xStart);
+        assertThrows(IllegalArgumentException.class, () -> new SearchLimits(null, 1, 0));
+    }
+
+    @Test
+    void testSolveExternallyInSeveralPasses() {
+        // A memory limit of one byte only lets two runs be merged at once, while
+        // every layer of this board spills to many more
+        assertEquals(ExternalSearch.MIN_FAN_IN, ExternalSearch.getMaxFanIn(1));
+        long root = PackedBoard.encode(Board.createBoard("Anyboard",
+                "X RBB X RBG X FHU0 FTU0 X X X RBW X FHL1 X RBB X X FTL1 X X X X X X X"));
+
+        // The layers of an in-memory breadth-first search over the whole state space
+        Set<Long> visited = new HashSet<>(List.of(root));
+        List<Long> layer = List.of(root);
+        int largestLayer = 0;
+        while (!layer.isEmpty()) {
+            largestLayer = Math.max(largestLayer, layer.size());
+            List<Long> next = new ArrayList<>();
+            for (long packed : layer) {
+                for (long child : PackedBoard.getChildren(packed)) {
+                    if (visited.add(child)) {
+                        next.add(child);
+                    }
+                }
+            }
+            layer = next;
+        }
+
+        SearchMonitor monitor = new SearchMonitor(new SearchLimits(null, Long.MAX_VALUE, 1));
+        assertTrue(ExternalSearch.breadthFirstSearch(root, monitor).isEmpty());
+        SearchStatistics statistics = monitor.getStatistics(Solver.Strategy.EXTERNAL_BREADTH_FIRST);
+        assertEquals(visited.size(), statistics.getExpandedNodes());
+        assertEquals(visited.size(), statistics.getVisitedNodes());
+        assertEquals(largestLayer, statistics.getMaxFrontierSize());
+        // A run holds MAX_MOVES children at this limit, and every position has a
+        // child, so expanding the largest layer spilled more runs than the fan-in
+        assertTrue(largestLayer > ExternalSearch.MIN_FAN_IN * PackedBoard.MAX_MOVES);
+    }
+
+    @Test
+    void testConcurrentSessions() throws Exception {
+        // Many games sharing one session must each be walked to a win
+        List<Callable<Integer>> games = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Board board = new Board(i % 2 == 0 ? normalBoard : easyBoard);
+            games.add(() -> {
+                int moves = 0;
+                while (!board.isInWinningState() && board.move(solver.getNextBestMove(board))) {
+                    moves++;
+                }
+                return moves;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = executor.invokeAll(games);
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i % 2 == 0 ? 6 : 2, results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testDeviateFromSolution() {
+        // Stray from the first hint, then follow the hints from there
+        long hinted = PackedBoard.encode(hardBoard);
+        Move hint = solver.getNextBestMove(hardBoard);
+        for (long child : PackedBoard.getChildren(hinted)) {
+            Move move = PackedBoard.getMove(hinted, child);
+            if (move.xStart != hint.xStart || move.yStart != hint.yStart || move.xEnd != hint.xEnd
+                    || move.yEnd != hint.yEnd) {
+                assertTrue(hardBoard.move(move));
+                break;
+            }
+        }
+        int distance = Tablebase.build(hardBoard).getDistance(hardBoard);
+        assertTrue(distance > 0);
+        for (int i = 0; i < distance; i++) {
+            assertFalse(hardBoard.isInWinningState());
+            assertTrue(hardBoard.move(solver.getNextBestMove(hardBoard)));
+        }
+        assertTrue(hardBoard.isInWinningState());
+        assertEquals(noMove.xStart, solver.getNextBestMove(hardBoard).xStart);
+    }
+
+    /**
+     * Follows the hints of a session until a move to a new position other than the
+     * hinted one can be made, then makes that move.
+     *
+     * @param session The session giving the hints
+     * @param board   The board
+     */
+    private static void strayFrom(Solver session, Board board) {
+        Set<Long> visited = new HashSet<>();
+        while (true) {
+            long packed = PackedBoard.encode(board);
+            visited.add(packed);
+            long hinted = PackedBoard.applyMove(packed, session.getNextBestMove(board));
+            for (long child : PackedBoard.getChildren(packed)) {
+                if (child != hinted && !visited.contains(child)) {
+                    assertTrue(board.move(PackedBoard.getMove(packed, child)));
+                    return;
+                }
+            }
+            assertTrue(board.move(PackedBoard.getMove(packed, hinted)));
+        }
+    }
+
+    @Test
+    void testRepairWithinLimits() {
+        Solver session = new Solver(Solver.Strategy.BREADTH_FIRST, null, Solver.DEFAULT_CAPACITY);
+        strayFrom(session, hardBoard);
+
+        // A budget too small for the whole table falls back on a search
+        SearchResult searched = session.solve(hardBoard, new SearchLimits(null, Solver.MAX_REPAIR_STATES - 1));
+        assertEquals(SearchStatistics.Source.SEARCH, searched.getStatistics().getSource());
+        assertEquals(SearchResult.Status.SOLVED, searched.getStatus());
+        assertTrue(new Board(hardBoard).move(searched.getMove()));
+    }
+
+    @Test
+    void testNewLevelForgetsRepair() {
+        Solver session = new Solver(Solver.Strategy.BREADTH_FIRST, null, Solver.DEFAULT_CAPACITY);
+        strayFrom(session, hardBoard);
+        assertEquals(SearchStatistics.Source.REPAIR,
+                session.solve(hardBoard, SearchLimits.unlimited()).getStatistics().getSource());
+
+        // The first hint on another level is a search, not a repair
+        assertEquals(SearchStatistics.Source.SEARCH,
+                session.solve(normalBoard, SearchLimits.unlimited()).getStatistics().getSource());
+        assertEquals(SearchResult.Status.SOLVED, session.solve(hardBoard, SearchLimits.unlimited()).getStatus());
+    }
+
+    @Test
+    void testSolve() {
+        assertEquals(SearchResult.Status.SOLVED, solver.solve(normalBoard, SearchLimits.unlimited()).getStatus());
+        assertEquals(SearchResult.Status.UNSOLVABLE,
+                solver.solve(unsolvableBoard, SearchLimits.unlimited()).getStatus());
+        assertEquals(SearchResult.Status.UNSOLVABLE, solver.solve(null, SearchLimits.unlimited()).getStatus());
+
+        // A board that is already won needs no move
+        easyBoard.move(solver.getNextBestMove(easyBoard));
+        easyBoard.move(solver.getNextBestMove(easyBoard));
+        SearchResult won = solver.solve(easyBoard, SearchLimits.unlimited());
+        assertEquals(SearchResult.Status.SOLVED, won.getStatus());
+        assertEquals(Move.MoveDirection.INVALID, won.getMove().direction());
+    }
+
+    @Test
+    void testSolveWithinLimits() {
+        for (Solver.Strategy strategy : Solver.Strategy.values()) {
+            // A small node budget stops the search with at most a best guess
+            SearchResult result = solver.solve(hardBoard, strategy, new SearchLimits(null, 50));
+            assertNotEquals(SearchResult.Status.SOLVED, result.getStatus());
+            assertNotEquals(SearchResult.Status.UNSOLVABLE, result.getStatus());
+            if (result.getStatus() == SearchResult.Status.BEST_KNOWN) {
+                assertTrue(new Board(hardBoard).move(result.getMove()));
+            } else {
+                assertEquals(Move.MoveDirection.INVALID, result.getMove().direction());
+            }
+        }
+
+        // So does a timeout that has already passed
+        assertNotEquals(SearchResult.Status.SOLVED,
+                solver.solve(hardBoard, SearchLimits.withTimeout(Duration.ZERO)).getStatus());
+
+        // A cancelled search cannot suggest anything
+        SearchLimits cancelled = SearchLimits.unlimited();
+        cancelled.cancel();
+        assertTrue(cancelled.isCancelled());
+        assertEquals(SearchResult.Status.UNKNOWN, solver.solve(hardBoard, cancelled).getStatus());
+
+        // Partial results are not remembered, so the session can still solve the board
+        assertEquals(SearchResult.Status.SOLVED, solver.solve(hardBoard, SearchLimits.unlimited()).getStatus());
+        assertThrows(IllegalArgumentException.class, () -> new SearchLimits(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SearchLimits(Duration.ofSeconds(-1), 1));
+    }
+
+    @Test
+    void testCancelUnlimitedSearch() {
+        // Cancelling a search with no other limit still leaves a best known answer
+        SearchLimits limits = SearchLimits.unlimited();
+        SearchMonitor monitor = new SearchMonitor(limits);
+        long root = PackedBoard.encode(hardBoard);
+        assertTrue(monitor.expand(root));
+        long best = root;
+        for (long child : PackedBoard.getChildren(root)) {
+            assertTrue(monitor.expand(child));
+            if (Heuristic.estimate(child) < Heuristic.estimate(best)) {
+                best = child;
+            }
+        }
+        limits.cancel();
+        assertFalse(monitor.expand(best));
+        assertTrue(monitor.isInterrupted());
+        assertEquals(best, monitor.getBestKnown());
+        assertNotEquals(PackedBoard.INVALID, monitor.getBestKnown());
+    }
+
+    @Test
+    void testStatistics() {
+        SearchStatistics searched = solver.solve(hardBoard, SearchLimits.unlimited()).getStatistics();
+        assertEquals(SearchStatistics.Source.SEARCH, searched.getSource());
+        assertEquals(Solver.Strategy.BREADTH_FIRST, searched.getStrategy());
+        assertTrue(searched.getExpandedNodes() > 0);
+        assertTrue(searched.getVisitedNodes() >= searched.getExpandedNodes());
+        assertTrue(searched.getMaxFrontierSize() > 0);
+        assertTrue(searched.getSearchNanos() > 0);
+        assertTrue(searched.getTotalNanos() >= searched.getLookupNanos() + searched.getSearchNanos() +
+                                               searched.getCleanNanos());
+        assertTrue(searched.getHeapUsedBytes() > 0);
+
+        // The same board is then answered by the session without searching
+        SearchStatistics remembered = solver.solve(hardBoard, SearchLimits.unlimited()).getStatistics();
+        assertEquals(SearchStatistics.Source.SESSION, remembered.getSource());
+        assertEquals(0, remembered.getExpandedNodes());
+        assertEquals(0, remembered.getSearchNanos());
+    }
+
+    @Test
+    void testSolveEvent() throws IOException {
+        Path file = Files.createTempFile("solve", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("util.Solve");
+            recording.start();
+            solver.getNextBestMove(normalBoard);
+            recording.stop();
+            recording.dump(file);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertEquals(1, events.size());
+            assertEquals("SOLVED", events.get(0).getString("status"));
+            assertEquals("SEARCH", events.get(0).getString("source"));
+            assertTrue(events.get(0).getLong("expandedNodes") > 0);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testBoundedSession() {
+        // A session remembering a single position must still solve the board
+        Solver smallSolver = new Solver(Solver.Strategy.BREADTH_FIRST, null, 1);
+        for (int i = 0; i < 6; i++) {
+            assertTrue(normalBoard.move(smallSolver.getNextBestMove(normalBoard)));
+        }
+        assertTrue(normalBoard.isInWinningState());
+        assertThrows(IllegalArgumentException.class, () -> new Solver(Solver.Strategy.BREADTH_FIRST, null, 0));
+    }
 }
@@ -0,0 +1,68 @@
+package util;
+
+import model.Board;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Symmetry class.
+ *
+ * @author Samuel Gamelin
+ */
+class SymmetryTest {
+
+    @Test
+    void testMap() {
+        for (int transform = 0; transform < Symmetry.TRANSFORMS; transform++) {
+            Set<Integer> cells = new HashSet<>();
+            for (int cell = 0; cell < PackedBoard.CELLS; cell++) {
+                cells.add(Symmetry.map(transform, cell));
+                if (transform == 0) {
+                    assertEquals(cell, Symmetry.map(transform, cell));
+                }
+            }
+            // Every transform is a permutation of the cells which keeps the brown tiles in place
+            assertEquals(PackedBoard.CELLS, cells.size());
+            assertEquals(PackedBoard.BROWN_MASK, Symmetry.transform(transform, PackedBoard.BROWN_MASK));
+        }
+    }
+
+    @Test
+    void testGetTransforms() {
+        // Mushrooms and fox rows that are not symmetric leave only the identity
+        Board board = Board.createBoard("Anyboard",
+                "X X X X X FHU1 FTU1 X X RBB X X X X MU RBW MU X FHL0 X X X RBG FTL0 X");
+        long packed = PackedBoard.encode(board);
+        assertArrayEquals(new int[]{0}, Symmetry.getTransforms(packed));
+        assertEquals(packed, Symmetry.canonical(packed, Symmetry.getTransforms(packed)));
+
+        // An empty board is preserved by every transform
+        Board empty = Board.createBoard("Anyboard", "X X X X X X X X X X X X RBB X X X X X X X X X X X X");
+        assertEquals(Symmetry.TRANSFORMS, Symmetry.getTransforms(PackedBoard.encode(empty)).length);
+    }
+
+    @Test
+    void testCanonical() {
+        // A fox facing right and its mirror image facing left, with a rabbit on either side
+        Board board = Board.createBoard("Anyboard",
+                "X RBW X X X X FTR0 X X X X FHR0 X X X X X X X X X X X X X");
+        Board mirror = Board.createBoard("Anyboard",
+                "X X X X X X X X X X X FHL0 X X X X FTL0 X X X X RBG X X X");
+        long packed = PackedBoard.encode(board);
+        long mirrorPacked = PackedBoard.encode(mirror);
+        assertNotEquals(packed, mirrorPacked);
+        int[] transforms = Symmetry.getTransforms(packed);
+        assertTrue(transforms.length > 1);
+        assertEquals(Symmetry.canonical(packed, transforms), Symmetry.canonical(mirrorPacked, transforms));
+
+        // Moving the rabbit breaks the symmetry
+        Board moved = Board.createBoard("Anyboard",
+                "X X X RBW X X FTR0 X X X X FHR0 X X X X X X X X X X X X X");
+        assertNotEquals(Symmetry.canonical(packed, transforms),
+                Symmetry.canonical(PackedBoard.encode(moved), transforms));
+    }
+}
@@ -0,0 +1,85 @@
+package util;
+
+import model.Board;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Tablebase class.
+ *
+ * @author Samuel Gamelin
+ */
+class TablebaseTest {
+
+    private Board board;
+
+    private Tablebase tablebase;
+
+    @BeforeEach
+    void setUp() {
+        String BOARD_DATA = "X X X X X FHU1 FTU1 X X RBB X X X X MU RBW MU X FHL0 X X X RBG FTL0 X";
+        board = Board.createBoard("Anyboard", BOARD_DATA);
+        tablebase = Tablebase.build(board);
+    }
+
+    @Test
+    void testBuild() {
+        assertNotNull(tablebase);
+        assertTrue(tablebase.size() > 1);
+        // This board has an optimal six move solution
+        assertEquals(6, tablebase.getDistance(board));
+        assertNull(Tablebase.build((Board) null));
+    }
+
+    @Test
+    void testBuildReachable() {
+        Tablebase reachable = Tablebase.buildReachable(PackedBoard.encode(board));
+        assertTrue(reachable.size() > 1);
+        assertTrue(reachable.size() <= tablebase.size());
+        assertEquals(6, reachable.getDistance(board));
+
+        // Building stops once too many positions are reachable or the search is stopped
+        long packed = PackedBoard.encode(board);
+        assertNull(Tablebase.buildReachable(packed, new SearchMonitor(SearchLimits.unlimited()), 1));
+        assertNull(Tablebase.buildReachable(packed, new SearchMonitor(new SearchLimits(null, 1)),
+                Integer.MAX_VALUE));
+        assertEquals(reachable.size(), Tablebase.buildReachable(packed, new SearchMonitor(SearchLimits.unlimited()),
+                Solver.MAX_REPAIR_STATES).size());
+
+        // A board that can never be won has no reachable winning position
+        Board unsolvable = Board.createBoard("Anyboard", "X X RBG X X X X X X X X X X X X X X X X X X X X X X");
+        assertEquals(0, Tablebase.buildReachable(PackedBoard.encode(unsolvable)).size());
+    }
+
+    @Test
+    void testGetNextBestMove() {
+        for (int distance = 6; distance > 0; distance--) {
+            assertEquals(distance, tablebase.getDistance(board));
+            assertTrue(board.move(tablebase.getNextBestMove(board)));
+        }
+        assertTrue(board.isInWinningState());
+        assertEquals(0, tablebase.getDistance(board));
+        assertEquals(Move.MoveDirection.INVALID, tablebase.getNextBestMove(board).direction());
+
+        // Boards with other pieces are not covered
+        Board other = Board.createBoard("Anyboard", "X X RBG X X X X X X X X X X X X X X X X X X X X X X");
+        assertEquals(-1, tablebase.getDistance(other));
+        assertEquals(Move.MoveDirection.INVALID, tablebase.getNextBestMove(other).direction());
+    }
+
+    @Test
+    void testWriteAndRead() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tablebase.write(out);
+        Tablebase read = Tablebase.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(tablebase.size(), read.size());
+        assertEquals(6, read.getDistance(board));
+        assertThrows(IOException.class, () -> Tablebase.read(new ByteArrayInputStream(new byte[]{1, 2, 3})));
+    }
+}